@@ -3,6 +3,7 @@ package io.github.shaksternano.mediamanipulator;
 import io.github.shaksternano.mediamanipulator.command.Command;
 import io.github.shaksternano.mediamanipulator.command.util.Commands;
 import io.github.shaksternano.mediamanipulator.command.util.TerminalInputListener;
+import io.github.shaksternano.mediamanipulator.emoji.EmojiAtlas;
 import io.github.shaksternano.mediamanipulator.emoji.EmojiUtil;
 import io.github.shaksternano.mediamanipulator.image.backgroundimage.ResourceContainerImageInfo;
 import io.github.shaksternano.mediamanipulator.image.reader.util.ImageReaders;
@@ -95,6 +96,7 @@ public class Main {
         commandThread.start();
 
         EmojiUtil.initEmojiUnicodeSet();
+        EmojiAtlas.initEmojiAtlas();
         configureJda();
 
         getLogger().info("Initialised!");
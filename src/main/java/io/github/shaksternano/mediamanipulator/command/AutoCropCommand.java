@@ -2,15 +2,14 @@ package io.github.shaksternano.mediamanipulator.command;
 
 import com.google.common.collect.ListMultimap;
 import io.github.shaksternano.mediamanipulator.command.util.CommandParser;
-import io.github.shaksternano.mediamanipulator.mediamanipulator.MediaManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageMediaOperation;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
 import java.awt.*;
-import java.io.File;
-import java.io.IOException;
 import java.util.List;
 
-public class AutoCropCommand extends MediaCommand {
+public class AutoCropCommand extends ImageOperationCommand {
 
     public static final int DEFAULT_COLOR_TOLERANCE = 0;
 
@@ -22,11 +21,11 @@ public class AutoCropCommand extends MediaCommand {
      * @param description The description of the command. This is displayed in the help command.
      */
     public AutoCropCommand(String name, String description) {
-        super(name, description);
+        super(name, description, "cropped");
     }
 
     @Override
-    public File applyOperation(File media, String fileFormat, List<String> arguments, ListMultimap<String, String> extraArguments, MediaManipulator manipulator, MessageReceivedEvent event) throws IOException {
+    public ImageMediaOperation createOperation(List<String> arguments, ListMultimap<String, String> extraArguments, ImageManipulator manipulator, MessageReceivedEvent event) {
         int rgb = CommandParser.parseIntegerArgument(
                 arguments,
                 0,
@@ -43,6 +42,6 @@ public class AutoCropCommand extends MediaCommand {
                 event.getChannel(),
                 (argument, defaultValue) -> "Color tolerance \"" + argument + "\" is not a whole number, choosing default value of " + defaultValue + "."
         );
-        return manipulator.autoCrop(media, fileFormat, rgb < 0 ? new Color(0, 0, 0, 0) : new Color(rgb), colorTolerance);
+        return imageMedia -> manipulator.autoCrop(imageMedia, rgb < 0 ? new Color(0, 0, 0, 0) : new Color(rgb), colorTolerance);
     }
 }
@@ -1,9 +1,13 @@
 package io.github.shaksternano.mediamanipulator.command;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * This class provides some default implementations for the {@code Command} interface.
@@ -53,6 +57,19 @@ public abstract class BaseCommand implements Command {
         return DESCRIPTION;
     }
 
+    /**
+     * Gets a key that identifies the output of this command for the given arguments, used to cache the output.
+     * Additional arguments are sorted by parameter name, so the order they were given in doesn't matter.
+     *
+     * @param arguments      The arguments of the command.
+     * @param extraArguments A multimap mapping the additional parameter names to a list of the arguments.
+     * @return The cache key.
+     */
+    protected String getCacheKey(List<String> arguments, ListMultimap<String, String> extraArguments) {
+        Map<String, ?> sortedExtraArguments = new TreeMap<>(extraArguments.asMap());
+        return NAME + " " + arguments + " " + sortedExtraArguments;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(NAME, DESCRIPTION);
@@ -2,19 +2,19 @@ package io.github.shaksternano.mediamanipulator.command;
 
 import com.google.common.collect.ListMultimap;
 import io.github.shaksternano.mediamanipulator.graphics.drawable.Drawable;
-import io.github.shaksternano.mediamanipulator.mediamanipulator.MediaManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageMediaOperation;
 import io.github.shaksternano.mediamanipulator.util.MessageUtil;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 /**
  * A command that adds a captions media.
  */
-public class CaptionCommand extends MediaCommand {
+public class CaptionCommand extends ImageOperationCommand {
 
     private final boolean CAPTION_2;
 
@@ -27,13 +27,16 @@ public class CaptionCommand extends MediaCommand {
      * @param caption2    Whether to put text on the bottom of the image instead of the top.
      */
     public CaptionCommand(String name, String description, boolean caption2) {
-        super(name, description);
+        super(name, description, "captioned");
         CAPTION_2 = caption2;
     }
 
     @Override
-    public File applyOperation(File media, String fileFormat, List<String> arguments, ListMultimap<String, String> extraArguments, MediaManipulator manipulator, MessageReceivedEvent event) throws IOException {
-        Map<String, Drawable> nonTextParts = MessageUtil.getNonTextParts(event.getMessage());
-        return manipulator.caption(media, fileFormat, arguments, nonTextParts, CAPTION_2);
+    public ImageMediaOperation createOperation(List<String> arguments, ListMultimap<String, String> extraArguments, ImageManipulator manipulator, MessageReceivedEvent event) {
+        Message message = event.getMessage();
+        return imageMedia -> {
+            Map<String, Drawable> nonTextParts = MessageUtil.getNonTextParts(message, ImageManipulator.getCaptionFontSize(imageMedia, CAPTION_2));
+            return manipulator.caption(imageMedia, arguments, nonTextParts, CAPTION_2);
+        };
     }
 }
@@ -4,16 +4,15 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ListMultimap;
 import io.github.shaksternano.mediamanipulator.command.util.CommandParser;
 import io.github.shaksternano.mediamanipulator.exception.MissingArgumentException;
-import io.github.shaksternano.mediamanipulator.mediamanipulator.MediaManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageMediaOperation;
 import net.dv8tion.jda.api.entities.MessageChannel;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 
-public class CropCommand extends MediaCommand {
+public class CropCommand extends ImageOperationCommand {
 
     /**
      * Creates a new command object.
@@ -23,11 +22,11 @@ public class CropCommand extends MediaCommand {
      * @param description The description of the command. This is displayed in the help command.
      */
     public CropCommand(String name, String description) {
-        super(name, description);
+        super(name, description, "cropped");
     }
 
     @Override
-    public File applyOperation(File media, String fileFormat, List<String> arguments, ListMultimap<String, String> extraArguments, MediaManipulator manipulator, MessageReceivedEvent event) throws IOException {
+    public ImageMediaOperation createOperation(List<String> arguments, ListMultimap<String, String> extraArguments, ImageManipulator manipulator, MessageReceivedEvent event) {
         MessageChannel triggerChannel = event.getChannel();
         float topRatio = CommandParser.parseFloatExtraArgument(
                 extraArguments,
@@ -65,7 +64,7 @@ public class CropCommand extends MediaCommand {
         if (topRatio == 0 && rightRatio == 0 && bottomRatio == 0 && leftRatio == 0) {
             throw new MissingArgumentException("No valid crop ratios were specified! Please specify at least one valid crop ratio.");
         } else {
-            return manipulator.crop(media, fileFormat, topRatio, rightRatio, bottomRatio, leftRatio);
+            return imageMedia -> manipulator.crop(imageMedia, topRatio, rightRatio, bottomRatio, leftRatio);
         }
     }
 
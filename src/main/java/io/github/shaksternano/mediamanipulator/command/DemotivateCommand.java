@@ -3,17 +3,17 @@ package io.github.shaksternano.mediamanipulator.command;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ListMultimap;
 import io.github.shaksternano.mediamanipulator.graphics.drawable.Drawable;
-import io.github.shaksternano.mediamanipulator.mediamanipulator.MediaManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageMediaOperation;
 import io.github.shaksternano.mediamanipulator.util.MessageUtil;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-public class DemotivateCommand extends MediaCommand {
+public class DemotivateCommand extends ImageOperationCommand {
 
     /**
      * Creates a new command object.
@@ -23,13 +23,16 @@ public class DemotivateCommand extends MediaCommand {
      * @param description The description of the command. This is displayed in the help command.
      */
     public DemotivateCommand(String name, String description) {
-        super(name, description);
+        super(name, description, "demotivated");
     }
 
     @Override
-    public File applyOperation(File media, String fileFormat, List<String> arguments, ListMultimap<String, String> extraArguments, MediaManipulator manipulator, MessageReceivedEvent event) throws IOException {
-        Map<String, Drawable> nonTextParts = MessageUtil.getNonTextParts(event.getMessage());
-        return manipulator.demotivate(media, fileFormat, arguments, extraArguments.get("sub"), nonTextParts);
+    public ImageMediaOperation createOperation(List<String> arguments, ListMultimap<String, String> extraArguments, ImageManipulator manipulator, MessageReceivedEvent event) {
+        Message message = event.getMessage();
+        return imageMedia -> {
+            Map<String, Drawable> nonTextParts = MessageUtil.getNonTextParts(message, ImageManipulator.getDemotivateFontSize(imageMedia));
+            return manipulator.demotivate(imageMedia, arguments, extraArguments.get("sub"), nonTextParts);
+        };
     }
 
     @Override
@@ -0,0 +1,74 @@
+package io.github.shaksternano.mediamanipulator.command;
+
+import com.google.common.collect.ListMultimap;
+import io.github.shaksternano.mediamanipulator.exception.MissingArgumentException;
+import io.github.shaksternano.mediamanipulator.exception.UnsupportedFileFormatException;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageMediaOperation;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.MediaManipulator;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A {@link MediaCommand} whose operation works on decoded images, so that the
+ * media is decoded once and encoded once, even when the result has to be compressed.
+ */
+public abstract class ImageOperationCommand extends MediaCommand {
+
+    @Nullable
+    private final String OPERATION_NAME;
+
+    /**
+     * Creates a new command object.
+     *
+     * @param name          The name of the command. When a user sends a message starting with {@link Command#PREFIX}
+     *                      followed by this name, the command will be executed.
+     * @param description   The description of the command. This is displayed in the help command.
+     * @param operationName The name of the operation, used as the name of the resulting file.
+     *                      If null, the name of the original file is used.
+     */
+    public ImageOperationCommand(String name, String description, @Nullable String operationName) {
+        super(name, description);
+        OPERATION_NAME = operationName;
+    }
+
+    @Override
+    public File applyOperation(File media, String fileFormat, List<String> arguments, ListMultimap<String, String> extraArguments, MediaManipulator manipulator, MessageReceivedEvent event) throws IOException {
+        ImageManipulator imageManipulator = getImageManipulator(manipulator);
+        ImageMediaOperation operation = createOperation(arguments, extraArguments, imageManipulator, event);
+        return imageManipulator.apply(media, fileFormat, operation, OPERATION_NAME);
+    }
+
+    @Override
+    public File applyOperationAndCompress(File media, String fileFormat, List<String> arguments, ListMultimap<String, String> extraArguments, MediaManipulator manipulator, MessageReceivedEvent event) throws IOException {
+        ImageManipulator imageManipulator = getImageManipulator(manipulator);
+        ImageMediaOperation operation = createOperation(arguments, extraArguments, imageManipulator, event);
+        return imageManipulator.applyAndCompress(media, fileFormat, operation, OPERATION_NAME, event.getGuild());
+    }
+
+    private static ImageManipulator getImageManipulator(MediaManipulator manipulator) throws UnsupportedFileFormatException {
+        if (manipulator instanceof ImageManipulator imageManipulator) {
+            return imageManipulator;
+        } else {
+            throw new UnsupportedFileFormatException("This operation only works on images.");
+        }
+    }
+
+    /**
+     * Creates the operation to apply to the decoded media. Arguments should be parsed here,
+     * before the media is decoded.
+     *
+     * @param arguments      The arguments of the command.
+     * @param extraArguments A multimap mapping the additional parameter names to a list of the arguments.
+     * @param manipulator    The {@link ImageManipulator} to use for the operation.
+     * @param event          The {@link MessageReceivedEvent} that triggered the command.
+     * @return The operation to apply.
+     * @throws IllegalArgumentException If an argument is invalid.
+     * @throws MissingArgumentException If the operation requires an argument but none was provided.
+     */
+    public abstract ImageMediaOperation createOperation(List<String> arguments, ListMultimap<String, String> extraArguments, ImageManipulator manipulator, MessageReceivedEvent event);
+}
@@ -4,17 +4,17 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ListMultimap;
 import io.github.shaksternano.mediamanipulator.exception.MissingArgumentException;
 import io.github.shaksternano.mediamanipulator.graphics.drawable.Drawable;
-import io.github.shaksternano.mediamanipulator.mediamanipulator.MediaManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageMediaOperation;
 import io.github.shaksternano.mediamanipulator.util.MessageUtil;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-public class ImpactCommand extends MediaCommand {
+public class ImpactCommand extends ImageOperationCommand {
 
     /**
      * Creates a new command object.
@@ -24,17 +24,20 @@ public class ImpactCommand extends MediaCommand {
      * @param description The description of the command. This is displayed in the help command.
      */
     public ImpactCommand(String name, String description) {
-        super(name, description);
+        super(name, description, "impacted");
     }
 
     @Override
-    public File applyOperation(File media, String fileFormat, List<String> arguments, ListMultimap<String, String> extraArguments, MediaManipulator manipulator, MessageReceivedEvent event) throws IOException {
-        Map<String, Drawable> nonTextParts = MessageUtil.getNonTextParts(event.getMessage());
+    public ImageMediaOperation createOperation(List<String> arguments, ListMultimap<String, String> extraArguments, ImageManipulator manipulator, MessageReceivedEvent event) {
+        Message message = event.getMessage();
         List<String> bottomWords = extraArguments.get("bottom");
         if (arguments.isEmpty() && bottomWords.isEmpty()) {
             throw new MissingArgumentException("Please specify text!");
         } else {
-            return manipulator.impact(media, fileFormat, arguments, bottomWords, nonTextParts);
+            return imageMedia -> {
+                Map<String, Drawable> nonTextParts = MessageUtil.getNonTextParts(message, ImageManipulator.getImpactFontSize(imageMedia));
+                return manipulator.impact(imageMedia, arguments, bottomWords, nonTextParts);
+            };
         }
     }
 
@@ -2,6 +2,8 @@ package io.github.shaksternano.mediamanipulator.command;
 
 import com.google.common.collect.ListMultimap;
 import io.github.shaksternano.mediamanipulator.Main;
+import io.github.shaksternano.mediamanipulator.command.util.CommandScheduler;
+import io.github.shaksternano.mediamanipulator.command.util.ResultCache;
 import io.github.shaksternano.mediamanipulator.exception.InvalidMediaException;
 import io.github.shaksternano.mediamanipulator.exception.MissingArgumentException;
 import io.github.shaksternano.mediamanipulator.exception.UnsupportedFileFormatException;
@@ -9,6 +11,7 @@ import io.github.shaksternano.mediamanipulator.io.FileUtil;
 import io.github.shaksternano.mediamanipulator.mediamanipulator.MediaManipulator;
 import io.github.shaksternano.mediamanipulator.mediamanipulator.util.MediaManipulatorRegistry;
 import io.github.shaksternano.mediamanipulator.util.DiscordUtil;
+import io.github.shaksternano.mediamanipulator.util.MediaCompression;
 import io.github.shaksternano.mediamanipulator.util.MessageUtil;
 import io.github.shaksternano.mediamanipulator.util.MiscUtil;
 import net.dv8tion.jda.api.entities.Message;
@@ -18,7 +21,6 @@ import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -38,9 +40,12 @@ public abstract class MediaCommand extends BaseCommand {
     }
 
     /**
-     * Gets a media file using {@link FileUtil#downloadFile(String, String)},
+     * Gets media using {@link MessageUtil#downloadMedia(Message, String)},
      * edits it using {@link #applyOperation(File, String, List, ListMultimap, MediaManipulator, MessageReceivedEvent)},
      * and then sends it to the channel where the command was triggered.
+     * If the same command was already run, or is running, with the same arguments on the same media,
+     * the output is taken from the {@link ResultCache} instead, and media that was downloaded
+     * into memory is never written to a file.
      *
      * @param arguments      The arguments of the command.
      * @param extraArguments A multimap mapping the additional parameter names to a list of the arguments.
@@ -50,22 +55,15 @@ public abstract class MediaCommand extends BaseCommand {
     @Override
     public void execute(List<String> arguments, ListMultimap<String, String> extraArguments, MessageReceivedEvent event) {
         Message userMessage = event.getMessage();
-        MessageUtil.downloadFile(userMessage, FileUtil.getTempDir().toString()).ifPresentOrElse(file -> {
-            String fileFormat = FileUtil.getFileFormat(file);
+        MessageUtil.downloadMedia(userMessage, FileUtil.getTempDir().toString()).ifPresentOrElse(media -> {
+            String fileFormat = media.getFormat();
 
             MediaManipulatorRegistry.getManipulator(fileFormat).ifPresentOrElse(manipulator -> {
-                File editedMedia = null;
                 File compressedMedia = null;
 
                 try {
-                    editedMedia = applyOperation(file, fileFormat, arguments, extraArguments, manipulator, event);
-                    String newFileFormat = FileUtil.getFileFormat(editedMedia);
-                    Optional<MediaManipulator> manipulatorOptional = MediaManipulatorRegistry.getManipulator(newFileFormat);
-                    if (manipulatorOptional.isPresent()) {
-                        compressedMedia = manipulatorOptional.orElseThrow().compress(editedMedia, newFileFormat, event.getGuild());
-                    } else {
-                        compressedMedia = editedMedia;
-                    }
+                    String cacheKey = ResultCache.getKey(media, getCacheKey(arguments, extraArguments), event.getGuild());
+                    compressedMedia = ResultCache.getOrCompute(cacheKey, () -> CommandScheduler.runCpuBound(() -> applyOperationAndCompress(media.getFile(), fileFormat, arguments, extraArguments, manipulator, event)));
 
                     long mediaFileSize = compressedMedia.length();
                     if (mediaFileSize > DiscordUtil.getMaxUploadSize(event.getGuild())) {
@@ -116,10 +114,7 @@ public abstract class MediaCommand extends BaseCommand {
                     userMessage.reply("The server ran out of memory! Try again later or use a smaller file.").queue();
                     Main.getLogger().error("Ran out of memory executing command " + getNameWithPrefix() + "!", e);
                 } finally {
-                    file.delete();
-                    if (editedMedia != null) {
-                        editedMedia.delete();
-                    }
+                    media.delete();
                     if (compressedMedia != null) {
                         compressedMedia.delete();
                     }
@@ -128,6 +123,26 @@ public abstract class MediaCommand extends BaseCommand {
         }, () -> userMessage.reply("No media found!").queue());
     }
 
+    /**
+     * Applies an operation using {@link #applyOperation(File, String, List, ListMultimap, MediaManipulator, MessageReceivedEvent)},
+     * then compresses the edited media so that it can be uploaded to the guild the command was triggered in.
+     * Commands that can avoid decoding the edited media again to compress it should override this.
+     *
+     * @param media          The media file to apply the operation to
+     * @param fileFormat     The type of the media file.
+     * @param arguments      The arguments of the command.
+     * @param extraArguments A multimap mapping the additional parameter names to a list of the arguments.
+     * @param manipulator    The {@link MediaManipulator} to use for the operation.
+     * @param event          The {@link MessageReceivedEvent} that triggered the command.
+     * @return The edited and compressed media file.
+     * @throws IOException              If an error occurs while applying the operation.
+     * @throws IllegalArgumentException If an argument is invalid.
+     * @throws MissingArgumentException If the operation requires an argument but none was provided.
+     */
+    public File applyOperationAndCompress(File media, String fileFormat, List<String> arguments, ListMultimap<String, String> extraArguments, MediaManipulator manipulator, MessageReceivedEvent event) throws IOException {
+        return MediaCompression.compress(applyOperation(media, fileFormat, arguments, extraArguments, manipulator, event), event.getGuild());
+    }
+
     /**
      * Applies an operation to the media file specified by {@link FileUtil#downloadFile(String, String)}.
      *
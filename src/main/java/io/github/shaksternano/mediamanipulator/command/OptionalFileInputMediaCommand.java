@@ -2,12 +2,16 @@ package io.github.shaksternano.mediamanipulator.command;
 
 import com.google.common.collect.ListMultimap;
 import io.github.shaksternano.mediamanipulator.Main;
+import io.github.shaksternano.mediamanipulator.command.util.CommandScheduler;
+import io.github.shaksternano.mediamanipulator.command.util.ResultCache;
 import io.github.shaksternano.mediamanipulator.exception.InvalidMediaException;
 import io.github.shaksternano.mediamanipulator.exception.UnsupportedFileFormatException;
+import io.github.shaksternano.mediamanipulator.io.DownloadedMedia;
 import io.github.shaksternano.mediamanipulator.io.FileUtil;
 import io.github.shaksternano.mediamanipulator.mediamanipulator.MediaManipulator;
 import io.github.shaksternano.mediamanipulator.mediamanipulator.util.MediaManipulatorRegistry;
 import io.github.shaksternano.mediamanipulator.util.DiscordUtil;
+import io.github.shaksternano.mediamanipulator.util.MediaCompression;
 import io.github.shaksternano.mediamanipulator.util.MessageUtil;
 import io.github.shaksternano.mediamanipulator.util.MiscUtil;
 import net.dv8tion.jda.api.entities.Message;
@@ -17,7 +21,6 @@ import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 public abstract class OptionalFileInputMediaCommand extends BaseCommand {
@@ -38,26 +41,18 @@ public abstract class OptionalFileInputMediaCommand extends BaseCommand {
     public void execute(List<String> arguments, ListMultimap<String, String> extraArguments, MessageReceivedEvent event) {
         Message userMessage = event.getMessage();
 
-        File file = arguments.size() == 0 ? MessageUtil.downloadFile(userMessage, FileUtil.getTempDir().toString()).orElse(null) : null;
-        String fileFormat = file == null ? null : FileUtil.getFileFormat(file);
+        DownloadedMedia media = arguments.size() == 0 ? MessageUtil.downloadMedia(userMessage, FileUtil.getTempDir().toString()).orElse(null) : null;
+        String fileFormat = media == null ? null : media.getFormat();
         MediaManipulator manipulator = fileFormat == null ? null : MediaManipulatorRegistry.getManipulator(fileFormat).orElse(null);
 
-        File editedMedia = null;
         File compressedMedia = null;
 
         try {
-            if (file == null) {
-                editedMedia = applyOperation(arguments, extraArguments, event);
+            if (media == null) {
+                compressedMedia = CommandScheduler.runCpuBound(() -> MediaCompression.compress(applyOperation(arguments, extraArguments, event), event.getGuild()));
             } else {
-                editedMedia = applyOperation(file, fileFormat, arguments, extraArguments, manipulator, event);
-            }
-
-            String newFileFormat = FileUtil.getFileFormat(editedMedia);
-            Optional<MediaManipulator> manipulatorOptional = MediaManipulatorRegistry.getManipulator(newFileFormat);
-            if (manipulatorOptional.isPresent()) {
-                compressedMedia = manipulatorOptional.orElseThrow().compress(editedMedia, newFileFormat, event.getGuild());
-            } else {
-                compressedMedia = editedMedia;
+                String cacheKey = ResultCache.getKey(media, getCacheKey(arguments, extraArguments), event.getGuild());
+                compressedMedia = ResultCache.getOrCompute(cacheKey, () -> CommandScheduler.runCpuBound(() -> MediaCompression.compress(applyOperation(media.getFile(), fileFormat, arguments, extraArguments, manipulator, event), event.getGuild())));
             }
 
             long mediaFileSize = compressedMedia.length();
@@ -109,11 +104,8 @@ public abstract class OptionalFileInputMediaCommand extends BaseCommand {
             userMessage.reply("The server ran out of memory! Try again later or use a smaller file.").queue();
             Main.getLogger().error("Ran out of memory executing command " + getNameWithPrefix() + "!", e);
         } finally {
-            if (file != null) {
-                file.delete();
-            }
-            if (editedMedia != null) {
-                editedMedia.delete();
+            if (media != null) {
+                media.delete();
             }
             if (compressedMedia != null) {
                 compressedMedia.delete();
@@ -0,0 +1,72 @@
+package io.github.shaksternano.mediamanipulator.command;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageMediaOperation;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Runs several {@link ImageOperationCommand}s one after another, such as
+ * {@code %caption hello | speed 2 | autocrop}. The media is downloaded, decoded,
+ * encoded and uploaded once, with every stage working on the decoded frames in memory.
+ */
+public class PipelineCommand extends ImageOperationCommand {
+
+    /**
+     * The separator between the stages of a pipeline.
+     */
+    public static final String SEPARATOR = "|";
+
+    /**
+     * The maximum number of stages a pipeline can have.
+     */
+    public static final int MAX_STAGES = 10;
+
+    private final List<Stage> STAGES;
+
+    /**
+     * Creates a new pipeline.
+     *
+     * @param stages The stages of the pipeline, in the order they are applied.
+     */
+    public PipelineCommand(List<Stage> stages) {
+        super(
+                stages.stream()
+                        .map(stage -> stage.command().getName())
+                        .collect(Collectors.joining(" " + SEPARATOR + " ")),
+                "Runs several commands one after another.",
+                null
+        );
+        STAGES = ImmutableList.copyOf(stages);
+    }
+
+    @Override
+    public ImageMediaOperation createOperation(List<String> arguments, ListMultimap<String, String> extraArguments, ImageManipulator manipulator, MessageReceivedEvent event) {
+        ImageMediaOperation operation = imageMedia -> imageMedia;
+        for (Stage stage : STAGES) {
+            operation = operation.andThen(stage.command().createOperation(stage.arguments(), stage.extraArguments(), manipulator, event));
+        }
+        return operation;
+    }
+
+    @Override
+    protected String getCacheKey(List<String> arguments, ListMultimap<String, String> extraArguments) {
+        return STAGES.stream()
+                .map(stage -> stage.command().getCacheKey(stage.arguments(), stage.extraArguments()))
+                .collect(Collectors.joining(" " + SEPARATOR + " "));
+    }
+
+    /**
+     * A single command in a pipeline.
+     *
+     * @param command        The command.
+     * @param arguments      The arguments of the command.
+     * @param extraArguments A multimap mapping the additional parameter names to a list of the arguments.
+     */
+    public record Stage(ImageOperationCommand command, List<String> arguments, ListMultimap<String, String> extraArguments) {
+    }
+}
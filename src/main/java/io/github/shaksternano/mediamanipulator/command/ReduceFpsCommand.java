@@ -2,14 +2,13 @@ package io.github.shaksternano.mediamanipulator.command;
 
 import com.google.common.collect.ListMultimap;
 import io.github.shaksternano.mediamanipulator.command.util.CommandParser;
-import io.github.shaksternano.mediamanipulator.mediamanipulator.MediaManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageMediaOperation;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.List;
 
-public class ReduceFpsCommand extends MediaCommand {
+public class ReduceFpsCommand extends ImageOperationCommand {
 
     public static final int DEFAULT_FPS_REDUCTION_MULTIPLIER = 2;
 
@@ -21,11 +20,11 @@ public class ReduceFpsCommand extends MediaCommand {
      * @param description The description of the command. This is displayed in the help command.
      */
     public ReduceFpsCommand(String name, String description) {
-        super(name, description);
+        super(name, description, "reduced_fps");
     }
 
     @Override
-    public File applyOperation(File media, String fileFormat, List<String> arguments, ListMultimap<String, String> extraArguments, MediaManipulator manipulator, MessageReceivedEvent event) throws IOException {
+    public ImageMediaOperation createOperation(List<String> arguments, ListMultimap<String, String> extraArguments, ImageManipulator manipulator, MessageReceivedEvent event) {
         int fpsReductionMultiplier = CommandParser.parseIntegerArgument(
                 arguments,
                 0,
@@ -34,6 +33,6 @@ public class ReduceFpsCommand extends MediaCommand {
                 event.getChannel(),
                 (argument, defaultValue) -> "FPS reduction multiplier \"" + argument + "\" is not a whole number! Using default value of " + defaultValue + "."
         );
-        return manipulator.reduceFps(media, fileFormat, fpsReductionMultiplier, true);
+        return imageMedia -> manipulator.reduceFps(imageMedia, fpsReductionMultiplier);
     }
 }
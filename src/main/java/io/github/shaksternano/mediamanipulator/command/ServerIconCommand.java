@@ -1,6 +1,7 @@
 package io.github.shaksternano.mediamanipulator.command;
 
 import com.google.common.collect.ListMultimap;
+import io.github.shaksternano.mediamanipulator.util.DiscordUtil;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
@@ -23,6 +24,6 @@ public class ServerIconCommand extends BaseCommand {
     public void execute(List<String> arguments, ListMultimap<String, String> extraArguments, MessageReceivedEvent event) {
         Message message = event.getMessage();
         String serverIconUrl = message.getGuild().getIconUrl();
-        message.reply(serverIconUrl == null ? "No server icon set!" : serverIconUrl + "?size=1024").queue();
+        message.reply(serverIconUrl == null ? "No server icon set!" : DiscordUtil.getCdnImageUrl(serverIconUrl, DiscordUtil.LINKED_IMAGE_SIZE)).queue();
     }
 }
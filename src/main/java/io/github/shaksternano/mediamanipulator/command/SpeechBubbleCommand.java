@@ -1,17 +1,16 @@
 package io.github.shaksternano.mediamanipulator.command;
 
 import com.google.common.collect.ListMultimap;
-import io.github.shaksternano.mediamanipulator.mediamanipulator.MediaManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageMediaOperation;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.List;
 
 /**
  * Adds a speech bubble on top of media.
  */
-public class SpeechBubbleCommand extends MediaCommand {
+public class SpeechBubbleCommand extends ImageOperationCommand {
 
     private final boolean CUT_OUT;
 
@@ -24,24 +23,21 @@ public class SpeechBubbleCommand extends MediaCommand {
      * @param cutOut      Whether the speech bubble should be cut out of the media.
      */
     public SpeechBubbleCommand(String name, String description, boolean cutOut) {
-        super(name, description);
+        super(name, description, "speech_bubbled");
         CUT_OUT = cutOut;
     }
 
     /**
      * Adds a speech bubble on top of media. The speech bubble is resized so that it's width is the same as the media's width.
      *
-     * @param media          The media file to apply the operation to.
-     * @param fileFormat     The file format of the media file.
      * @param arguments      The arguments of the command.
      * @param extraArguments A multimap mapping the additional parameter names to a list of the arguments.
-     * @param manipulator    The {@link MediaManipulator} to use for the operation.
+     * @param manipulator    The {@link ImageManipulator} to use for the operation.
      * @param event          The {@link MessageReceivedEvent} that triggered the command.
-     * @return The edited media file.
-     * @throws IOException If an error occurs while applying the operation.
+     * @return The operation to apply.
      */
     @Override
-    public File applyOperation(File media, String fileFormat, List<String> arguments, ListMultimap<String, String> extraArguments, MediaManipulator manipulator, MessageReceivedEvent event) throws IOException {
-        return manipulator.speechBubble(media, fileFormat, CUT_OUT);
+    public ImageMediaOperation createOperation(List<String> arguments, ListMultimap<String, String> extraArguments, ImageManipulator manipulator, MessageReceivedEvent event) {
+        return imageMedia -> manipulator.speechBubble(imageMedia, CUT_OUT);
     }
 }
@@ -2,15 +2,14 @@ package io.github.shaksternano.mediamanipulator.command;
 
 import com.google.common.collect.ListMultimap;
 import io.github.shaksternano.mediamanipulator.command.util.CommandParser;
-import io.github.shaksternano.mediamanipulator.mediamanipulator.MediaManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageMediaOperation;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
 import java.awt.*;
-import java.io.File;
-import java.io.IOException;
 import java.util.List;
 
-public class SpinCommand extends MediaCommand {
+public class SpinCommand extends ImageOperationCommand {
 
     public static final int DEFAULT_SPIN_SPEED = 1;
 
@@ -22,11 +21,11 @@ public class SpinCommand extends MediaCommand {
      * @param description The description of the command. This is displayed in the help command.
      */
     public SpinCommand(String name, String description) {
-        super(name, description);
+        super(name, description, "spun");
     }
 
     @Override
-    public File applyOperation(File media, String fileFormat, List<String> arguments, ListMultimap<String, String> extraArguments, MediaManipulator manipulator, MessageReceivedEvent event) throws IOException {
+    public ImageMediaOperation createOperation(List<String> arguments, ListMultimap<String, String> extraArguments, ImageManipulator manipulator, MessageReceivedEvent event) {
         float spinSpeed = CommandParser.parseFloatArgument(arguments,
                 0,
                 DEFAULT_SPIN_SPEED,
@@ -42,6 +41,6 @@ public class SpinCommand extends MediaCommand {
                 event.getChannel(),
                 (argument, defaultValue) -> "RGB value \"" + argument + "\" is not a whole number. Setting transparent background color."
         );
-        return manipulator.spin(media, fileFormat, spinSpeed, rgb < 0 ? null : new Color(rgb));
+        return imageMedia -> manipulator.spin(imageMedia, spinSpeed, rgb < 0 ? null : new Color(rgb));
     }
 }
@@ -1,14 +1,13 @@
 package io.github.shaksternano.mediamanipulator.command;
 
 import com.google.common.collect.ListMultimap;
-import io.github.shaksternano.mediamanipulator.mediamanipulator.MediaManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.ImageMediaOperation;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.List;
 
-public class UncaptionCommand extends MediaCommand {
+public class UncaptionCommand extends ImageOperationCommand {
 
     /**
      * Creates a new command object.
@@ -18,11 +17,11 @@ public class UncaptionCommand extends MediaCommand {
      * @param description The description of the command. This is displayed in the help command.
      */
     public UncaptionCommand(String name, String description) {
-        super(name, description);
+        super(name, description, "uncaptioned");
     }
 
     @Override
-    public File applyOperation(File media, String fileFormat, List<String> arguments, ListMultimap<String, String> extraArguments, MediaManipulator manipulator, MessageReceivedEvent event) throws IOException {
-        return manipulator.uncaption(media, fileFormat);
+    public ImageMediaOperation createOperation(List<String> arguments, ListMultimap<String, String> extraArguments, ImageManipulator manipulator, MessageReceivedEvent event) {
+        return imageMedia -> manipulator.uncaption(imageMedia);
     }
 }
@@ -2,6 +2,7 @@ package io.github.shaksternano.mediamanipulator.command;
 
 import com.google.common.collect.ListMultimap;
 import io.github.shaksternano.mediamanipulator.Main;
+import io.github.shaksternano.mediamanipulator.util.DiscordUtil;
 import io.github.shaksternano.mediamanipulator.util.MessageUtil;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
@@ -36,7 +37,7 @@ public class UserAvatarCommand extends BaseCommand {
                 return Optional.of(message.getAuthor().getEffectiveAvatarUrl());
             }
         }).ifPresentOrElse(
-                url -> event.getMessage().reply(url + "?size=1024").queue(),
+                url -> event.getMessage().reply(DiscordUtil.getCdnImageUrl(url, DiscordUtil.LINKED_IMAGE_SIZE)).queue(),
                 () -> {
                     event.getMessage().reply("Could not find a user to get the profile picture of!").queue();
                     Main.getLogger().error("Could not find a user to get the profile picture of, this shouldn't happen!", new IllegalStateException());
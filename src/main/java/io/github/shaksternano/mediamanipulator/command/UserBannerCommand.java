@@ -1,6 +1,7 @@
 package io.github.shaksternano.mediamanipulator.command;
 
 import com.google.common.collect.ListMultimap;
+import io.github.shaksternano.mediamanipulator.util.DiscordUtil;
 import io.github.shaksternano.mediamanipulator.util.MessageUtil;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.User;
@@ -33,7 +34,7 @@ public class UserBannerCommand extends BaseCommand {
                 return Optional.ofNullable(message.getAuthor().retrieveProfile().complete().getBannerUrl());
             }
         }).ifPresentOrElse(
-                url -> event.getMessage().reply(url + "?size=1024").queue(),
+                url -> event.getMessage().reply(DiscordUtil.getCdnImageUrl(url, DiscordUtil.LINKED_IMAGE_SIZE)).queue(),
                 () -> event.getMessage().reply("Could not find a user with a banner image!").queue()
         );
     }
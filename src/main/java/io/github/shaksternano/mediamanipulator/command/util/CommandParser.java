@@ -5,6 +5,8 @@ import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ListMultimap;
 import io.github.shaksternano.mediamanipulator.Main;
 import io.github.shaksternano.mediamanipulator.command.Command;
+import io.github.shaksternano.mediamanipulator.command.ImageOperationCommand;
+import io.github.shaksternano.mediamanipulator.command.PipelineCommand;
 import io.github.shaksternano.mediamanipulator.exception.InvalidArgumentException;
 import io.github.shaksternano.mediamanipulator.exception.MissingArgumentException;
 import io.github.shaksternano.mediamanipulator.util.DiscordUtil;
@@ -31,6 +33,9 @@ public class CommandParser {
 
     /**
      * Gets a {@link Command} from the command word in a message and executes it.
+     * If the message contains several commands separated by {@link PipelineCommand#SEPARATOR},
+     * they are run one after another as a {@link PipelineCommand}.
+     * See {@link #parsePipelineStages(List, Command)} for when a message is treated as a pipeline.
      *
      * @param event The {@link MessageReceivedEvent} that triggered the command.
      */
@@ -39,38 +44,131 @@ public class CommandParser {
         String stringMessage = DiscordUtil.getContentStrippedKeepEmotes(userMessage).trim();
         List<String> commandParts = parseCommandParts(stringMessage);
 
-        MessageChannel channel = event.getChannel();
-
         if (commandParts.size() > 0) {
             Optional<Command> commandOptional = CommandRegistry.getCommand(commandParts.get(0));
 
             commandOptional.ifPresent(command -> {
-                try {
-                    channel.sendTyping().queue();
-                    List<String> arguments = parseBaseArguments(commandParts, command);
-                    ListMultimap<String, String> extraArguments = parseExtraArguments(commandParts, command);
-
+                Optional<List<List<String>>> stagesOptional = parsePipelineStages(commandParts, command);
+                if (stagesOptional.isPresent()) {
                     try {
-                        command.execute(arguments, extraArguments, event);
-                    } catch (PermissionException e) {
-                        userMessage.reply("This bot doesn't have the required permissions to execute this command!").queue();
-                        Main.getLogger().error("This bot doesn't have the required permissions needed to execute command " + command.getNameWithPrefix() + "!", e);
+                        execute(parsePipeline(stagesOptional.orElseThrow()), ImmutableList.of(), ImmutableListMultimap.of(), event);
                     } catch (InvalidArgumentException e) {
-                        userMessage.reply(e.getMessage() == null ? "Invalid arguments!" : "Invalid arguments: " + e.getMessage()).queue();
-                    } catch (MissingArgumentException e) {
-                        userMessage.reply(e.getMessage() == null ? "Missing arguments!" : "Missing arguments: " + e.getMessage()).queue();
-                    } catch (OutOfMemoryError e) {
-                        userMessage.reply("The server ran out of memory trying to execute this command! Try again later.").queue();
-                        Main.getLogger().error("Ran out of memory trying to execute command " + command.getNameWithPrefix() + "!", e);
-                    } catch (Throwable t) {
-                        userMessage.reply("Error executing command!").queue();
-                        Main.getLogger().error("Error executing command " + command.getNameWithPrefix() + "!", t);
+                        userMessage.reply(e.getMessage() == null ? "Invalid pipeline!" : "Invalid pipeline: " + e.getMessage()).queue();
                     }
+                } else {
+                    List<String> arguments = parseBaseArguments(commandParts, command);
+                    ListMultimap<String, String> extraArguments = parseExtraArguments(commandParts, command);
+                    execute(command, arguments, extraArguments, event);
+                }
+            });
+        }
+    }
+
+    /**
+     * Schedules a command to run using {@link CommandScheduler}, so that it doesn't block the JDA event thread.
+     *
+     * @param command        The command to run.
+     * @param arguments      The arguments of the command.
+     * @param extraArguments A multimap mapping the additional parameter names to a list of the arguments.
+     * @param event          The {@link MessageReceivedEvent} that triggered the command.
+     */
+    private static void execute(Command command, List<String> arguments, ListMultimap<String, String> extraArguments, MessageReceivedEvent event) {
+        Message userMessage = event.getMessage();
+        MessageChannel channel = event.getChannel();
+        try {
+            channel.sendTyping().queue();
+            CommandScheduler.submit(event, () -> {
+                try {
+                    command.execute(arguments, extraArguments, event);
                 } catch (PermissionException e) {
-                    Main.getLogger().error("Missing send message permission!", e);
+                    userMessage.reply("This bot doesn't have the required permissions to execute this command!").queue();
+                    Main.getLogger().error("This bot doesn't have the required permissions needed to execute command " + command.getNameWithPrefix() + "!", e);
+                } catch (InvalidArgumentException e) {
+                    userMessage.reply(e.getMessage() == null ? "Invalid arguments!" : "Invalid arguments: " + e.getMessage()).queue();
+                } catch (MissingArgumentException e) {
+                    userMessage.reply(e.getMessage() == null ? "Missing arguments!" : "Missing arguments: " + e.getMessage()).queue();
+                } catch (OutOfMemoryError e) {
+                    userMessage.reply("The server ran out of memory trying to execute this command! Try again later.").queue();
+                    Main.getLogger().error("Ran out of memory trying to execute command " + command.getNameWithPrefix() + "!", e);
+                } catch (Throwable t) {
+                    userMessage.reply("Error executing command!").queue();
+                    Main.getLogger().error("Error executing command " + command.getNameWithPrefix() + "!", t);
                 }
             });
+        } catch (PermissionException e) {
+            Main.getLogger().error("Missing send message permission!", e);
+        }
+    }
+
+    /**
+     * Splits command parts into the parts of each stage of a pipeline.
+     * The command parts are only treated as a pipeline if the first command is an {@link ImageOperationCommand}
+     * and every {@link PipelineCommand#SEPARATOR} on its own is followed by the word of a registered command,
+     * with an optional {@link Command#PREFIX}. Otherwise, a separator is just part of the arguments,
+     * such as in the text of a caption.
+     *
+     * @param commandParts The command parts to split.
+     * @param command      The command of the first command word.
+     * @return An {@link Optional} describing the parts of each stage, with the first part of every stage
+     * being its command word. The {@link Optional} will be empty if the command parts are not a pipeline.
+     */
+    static Optional<List<List<String>>> parsePipelineStages(List<String> commandParts, Command command) {
+        if (!(command instanceof ImageOperationCommand) || !commandParts.contains(PipelineCommand.SEPARATOR)) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<List<String>> stagesBuilder = new ImmutableList.Builder<>();
+        ImmutableList.Builder<String> stageBuilder = new ImmutableList.Builder<>();
+        boolean stageStart = false;
+        for (String commandPart : commandParts) {
+            if (stageStart) {
+                String commandWord = commandPart.startsWith(Command.PREFIX) ? commandPart.substring(Command.PREFIX.length()) : commandPart;
+                if (CommandRegistry.getCommand(commandWord).isEmpty()) {
+                    return Optional.empty();
+                }
+
+                stageBuilder.add(commandWord.toLowerCase());
+                stageStart = false;
+            } else if (commandPart.equals(PipelineCommand.SEPARATOR)) {
+                stagesBuilder.add(stageBuilder.build());
+                stageBuilder = new ImmutableList.Builder<>();
+                stageStart = true;
+            } else {
+                stageBuilder.add(commandPart);
+            }
         }
+
+        if (stageStart) {
+            return Optional.empty();
+        } else {
+            stagesBuilder.add(stageBuilder.build());
+            return Optional.of(stagesBuilder.build());
+        }
+    }
+
+    private static Command parsePipeline(List<List<String>> stages) {
+        if (stages.size() > PipelineCommand.MAX_STAGES) {
+            throw new InvalidArgumentException("A pipeline can have at most " + PipelineCommand.MAX_STAGES + " commands!");
+        }
+
+        ImmutableList.Builder<PipelineCommand.Stage> stagesBuilder = new ImmutableList.Builder<>();
+        for (List<String> stageParts : stages) {
+            String commandWord = stageParts.get(0);
+            Command command = CommandRegistry.getCommand(commandWord).orElseThrow(
+                    () -> new InvalidArgumentException("Unknown command \"" + commandWord + "\"!")
+            );
+            if (command instanceof ImageOperationCommand imageOperationCommand) {
+                stagesBuilder.add(new PipelineCommand.Stage(
+                        imageOperationCommand,
+                        parseBaseArguments(stageParts, command),
+                        parseExtraArguments(stageParts, command)
+                ));
+            } else {
+                throw new InvalidArgumentException("Command " + command.getNameWithPrefix() + " can't be used in a pipeline!");
+            }
+        }
+
+        return new PipelineCommand(stagesBuilder.build());
     }
 
     /**
@@ -79,7 +177,7 @@ public class CommandParser {
      * @param message The message to split.
      * @return The split message.
      */
-    private static List<String> parseCommandParts(String message) {
+    static List<String> parseCommandParts(String message) {
         if (message.length() > 1) {
             if (message.startsWith(Command.PREFIX)) {
                 String[] commandParts = message.split("\\s+");
@@ -97,7 +195,7 @@ public class CommandParser {
      * @param commandParts The command parts to remove the command word from.
      * @return The arguments of the command.
      */
-    private static List<String> parseBaseArguments(List<String> commandParts, Command command) {
+    static List<String> parseBaseArguments(List<String> commandParts, Command command) {
         ImmutableList.Builder<String> argumentsBuilder = new ImmutableList.Builder<>();
 
         boolean passedFirst = false;
@@ -0,0 +1,255 @@
+package io.github.shaksternano.mediamanipulator.command.util;
+
+import io.github.shaksternano.mediamanipulator.Main;
+import io.github.shaksternano.mediamanipulator.util.CollectionUtil;
+import io.github.shaksternano.mediamanipulator.util.MiscUtil;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs commands off the JDA event thread. Commands are run on an I/O pool, which
+ * handles downloading and uploading, while the image processing of a command is
+ * run on a separate CPU pool using {@link #runCpuBound(Callable)}. Frames processed in parallel
+ * within a command are also run on the CPU pool, using {@link #getCpuExecutor()}.
+ * The number of commands running at once for a single guild or user is capped,
+ * and commands that can't start straight away wait in a bounded queue.
+ * Commands are rejected if the queue is full or if there isn't enough heap to run them.
+ */
+public class CommandScheduler {
+
+    /**
+     * The maximum number of commands that can run at once.
+     */
+    private static final int MAX_RUNNING = Math.max(Runtime.getRuntime().availableProcessors() * 2, 4);
+
+    /**
+     * The maximum number of commands that can wait to run.
+     */
+    private static final int MAX_QUEUED = 50;
+
+    private static final int MAX_RUNNING_PER_GUILD = 3;
+
+    private static final int MAX_RUNNING_PER_USER = 1;
+
+    /**
+     * The heap reserved for a command with no attachments, which may still download media from elsewhere.
+     */
+    private static final long BASE_HEAP_ESTIMATE = 16 * MiscUtil.TO_MB;
+
+    /**
+     * How many times larger decoded media is estimated to be compared to its encoded file.
+     */
+    private static final int DECODED_SIZE_MULTIPLIER = 20;
+
+    private static final ExecutorService IO_EXECUTOR = Executors.newFixedThreadPool(MAX_RUNNING, createThreadFactory("Command I/O"));
+
+    private static final ExecutorService CPU_EXECUTOR = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), createThreadFactory("Command CPU"));
+
+    private static final Deque<Task> QUEUE = new ArrayDeque<>();
+
+    private static final Map<Long, Integer> RUNNING_PER_GUILD = new HashMap<>();
+
+    private static final Map<Long, Integer> RUNNING_PER_USER = new HashMap<>();
+
+    private static int running = 0;
+
+    private static long reservedHeap = 0;
+
+    /**
+     * Schedules a command to run. If the command can't start straight away,
+     * the user is told their position in the queue.
+     *
+     * @param event   The {@link MessageReceivedEvent} that triggered the command.
+     * @param command The command to run.
+     */
+    public static void submit(MessageReceivedEvent event, Runnable command) {
+        Message userMessage = event.getMessage();
+        long heapEstimate = estimateHeapDemand(userMessage);
+        Task task = new Task(
+                command,
+                event.isFromGuild() ? event.getGuild().getIdLong() : null,
+                event.getAuthor().getIdLong(),
+                heapEstimate
+        );
+
+        boolean enoughHeap;
+        boolean queueFull;
+        int queuePosition = 0;
+        synchronized (CommandScheduler.class) {
+            enoughHeap = heapEstimate <= getAvailableHeap();
+            queueFull = QUEUE.size() >= MAX_QUEUED;
+            if (enoughHeap && !queueFull) {
+                QUEUE.addLast(task);
+                dispatch();
+                queuePosition = getQueuePosition(task);
+            }
+        }
+
+        if (!enoughHeap) {
+            userMessage.reply("The server doesn't have enough memory to run this command right now! Try again later.").queue();
+            Main.getLogger().warn("Rejected command needing an estimated " + (heapEstimate / MiscUtil.TO_MB) + "MB of memory.");
+        } else if (queueFull) {
+            userMessage.reply("The bot is busy right now! Try again later.").queue();
+        } else if (queuePosition > 0) {
+            userMessage.reply("Your command is number " + queuePosition + " in the queue.").queue();
+        }
+    }
+
+    /**
+     * Runs CPU intensive work on the CPU pool and waits for it to finish.
+     * This limits the amount of image processing happening at once to the number of available processors.
+     *
+     * @param work The work to run.
+     * @param <T>  The type of the result.
+     * @return The result of the work.
+     * @throws IOException If the work throws an {@link IOException}, or the wait was interrupted.
+     */
+    public static <T> T runCpuBound(Callable<T> work) throws IOException {
+        Future<T> future = CPU_EXECUTOR.submit(work);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for CPU bound work to finish!");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            } else if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (cause instanceof Error error) {
+                throw error;
+            } else {
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    /**
+     * Gets the CPU pool, so that work split up within a command shares the same cap on processing threads.
+     * Work submitted to it must not wait for other work on the pool, unless the waiting thread can run that work itself,
+     * such as with {@link CollectionUtil#parallelMapOrdered(Iterator, Function, int, Executor)}.
+     *
+     * @return The CPU pool.
+     */
+    public static Executor getCpuExecutor() {
+        return CPU_EXECUTOR;
+    }
+
+    /**
+     * Starts every queued task that is within the concurrency caps, in queue order.
+     */
+    private static void dispatch() {
+        Iterator<Task> iterator = QUEUE.iterator();
+        while (running < MAX_RUNNING && iterator.hasNext()) {
+            Task task = iterator.next();
+            if (canStart(task)) {
+                iterator.remove();
+                start(task);
+            }
+        }
+    }
+
+    private static boolean canStart(Task task) {
+        boolean guildAvailable = task.guildId() == null || RUNNING_PER_GUILD.getOrDefault(task.guildId(), 0) < MAX_RUNNING_PER_GUILD;
+        boolean userAvailable = RUNNING_PER_USER.getOrDefault(task.userId(), 0) < MAX_RUNNING_PER_USER;
+        boolean heapAvailable = running == 0 || task.heapEstimate() <= getAvailableHeap();
+        return guildAvailable && userAvailable && heapAvailable;
+    }
+
+    private static void start(Task task) {
+        running++;
+        reservedHeap += task.heapEstimate();
+        if (task.guildId() != null) {
+            RUNNING_PER_GUILD.merge(task.guildId(), 1, Integer::sum);
+        }
+        RUNNING_PER_USER.merge(task.userId(), 1, Integer::sum);
+
+        IO_EXECUTOR.execute(() -> {
+            try {
+                task.command().run();
+            } catch (Throwable t) {
+                Main.getLogger().error("Error running scheduled command!", t);
+            } finally {
+                finish(task);
+            }
+        });
+    }
+
+    private static synchronized void finish(Task task) {
+        running--;
+        reservedHeap -= task.heapEstimate();
+        if (task.guildId() != null) {
+            RUNNING_PER_GUILD.computeIfPresent(task.guildId(), (guildId, count) -> count > 1 ? count - 1 : null);
+        }
+        RUNNING_PER_USER.computeIfPresent(task.userId(), (userId, count) -> count > 1 ? count - 1 : null);
+        dispatch();
+    }
+
+    /**
+     * Gets the 1-based position of a task in the queue.
+     *
+     * @param task The task.
+     * @return The position of the task, or 0 if the task has already started.
+     */
+    private static int getQueuePosition(Task task) {
+        int position = 1;
+        for (Task queued : QUEUE) {
+            if (queued == task) {
+                return position;
+            }
+            position++;
+        }
+        return 0;
+    }
+
+    private static long getAvailableHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        return runtime.maxMemory() - used - reservedHeap;
+    }
+
+    /**
+     * Estimates how much heap a command will need from the sizes of the attachments
+     * of the message that triggered it and the message it replies to.
+     *
+     * @param message The message that triggered the command.
+     * @return The estimated heap demand in bytes.
+     */
+    private static long estimateHeapDemand(Message message) {
+        long estimate = BASE_HEAP_ESTIMATE;
+        List<Message.Attachment> attachments = new ArrayList<>(message.getAttachments());
+        Message referencedMessage = message.getReferencedMessage();
+        if (referencedMessage != null) {
+            attachments.addAll(referencedMessage.getAttachments());
+        }
+
+        for (Message.Attachment attachment : attachments) {
+            long decodedFrameSize = (long) Math.max(attachment.getWidth(), 0) * Math.max(attachment.getHeight(), 0) * Integer.BYTES;
+            estimate += Math.max((long) attachment.getSize() * DECODED_SIZE_MULTIPLIER, decodedFrameSize);
+        }
+
+        return estimate;
+    }
+
+    private static ThreadFactory createThreadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + " " + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Task(Runnable command, @Nullable Long guildId, long userId, long heapEstimate) {
+    }
+}
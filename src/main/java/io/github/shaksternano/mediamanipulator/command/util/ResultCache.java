@@ -0,0 +1,200 @@
+package io.github.shaksternano.mediamanipulator.command.util;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import io.github.shaksternano.mediamanipulator.Main;
+import io.github.shaksternano.mediamanipulator.io.DownloadedMedia;
+import io.github.shaksternano.mediamanipulator.io.FileLruCache;
+import io.github.shaksternano.mediamanipulator.util.DiscordUtil;
+import net.dv8tion.jda.api.entities.Guild;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A least recently used cache of the compressed output of media commands, so that running the same
+ * command with the same arguments on the same media again doesn't have to decode, edit and encode it again.
+ * Outputs are keyed by the SHA-256 hash of the input media, the command's cache key,
+ * the guild, as emotes in the arguments are resolved from the guild, and the maximum
+ * upload size of the guild, which the output was compressed to fit.
+ * Identical commands that run at the same time are coalesced, so only one of them does the work
+ * and the others wait for it and take its output from the cache.
+ */
+public class ResultCache {
+
+    /**
+     * The maximum total size of the cached outputs, 256MB.
+     */
+    private static final long MAXIMUM_CACHE_SIZE = 268435456;
+
+    private static final FileLruCache CACHE = new FileLruCache("result_cache", MAXIMUM_CACHE_SIZE, null);
+
+    /**
+     * The outputs that are being computed, completing once the output has been computed and cached.
+     */
+    private static final Map<String, CompletableFuture<Void>> IN_FLIGHT = new HashMap<>();
+
+    /**
+     * Gets the key of a command's output.
+     *
+     * @param input      The input media file.
+     * @param commandKey The cache key of the command and its arguments.
+     * @param guild      The guild the command was triggered in, or null if it wasn't triggered in a guild.
+     * @return The key.
+     * @throws IOException If an error occurs while hashing the input media.
+     */
+    public static String getKey(File input, String commandKey, @Nullable Guild guild) throws IOException {
+        return getKey(Files.asByteSource(input).hash(Hashing.sha256()).toString(), commandKey, guild);
+    }
+
+    /**
+     * Gets the key of a command's output. Media held in memory is hashed without being written to a file.
+     *
+     * @param input      The input media.
+     * @param commandKey The cache key of the command and its arguments.
+     * @param guild      The guild the command was triggered in, or null if it wasn't triggered in a guild.
+     * @return The key.
+     * @throws IOException If an error occurs while hashing the input media.
+     */
+    public static String getKey(DownloadedMedia input, String commandKey, @Nullable Guild guild) throws IOException {
+        return getKey(input.getHash(), commandKey, guild);
+    }
+
+    private static String getKey(String inputHash, String commandKey, @Nullable Guild guild) {
+        String guildId = guild == null ? "-" : guild.getId();
+        return inputHash + " " + guildId + " " + DiscordUtil.getMaxUploadSize(guild) + " " + commandKey;
+    }
+
+    /**
+     * Gets a cached output, computing and caching it if it isn't cached. If the same output
+     * is already being computed, this waits for it to finish instead of computing it again.
+     *
+     * @param key       The key of the output, from {@link #getKey(File, String, Guild)}.
+     * @param operation Computes the output.
+     * @return The output file, which the caller owns.
+     * @throws IOException If an error occurs while computing the output. If this call was waiting for
+     *                     another call to compute the output, the other call's exception is thrown.
+     */
+    public static File getOrCompute(String key, Operation operation) throws IOException {
+        Optional<File> cachedOptional = get(key);
+        if (cachedOptional.isPresent()) {
+            return cachedOptional.orElseThrow();
+        }
+
+        CompletableFuture<Void> inFlight;
+        CompletableFuture<Void> computation = null;
+        synchronized (IN_FLIGHT) {
+            inFlight = IN_FLIGHT.get(key);
+            if (inFlight == null) {
+                computation = new CompletableFuture<>();
+                IN_FLIGHT.put(key, computation);
+            }
+        }
+
+        if (computation == null) {
+            await(inFlight);
+            Optional<File> computedOptional = get(key);
+            if (computedOptional.isPresent()) {
+                return computedOptional.orElseThrow();
+            } else {
+                // The output couldn't be cached, so it has to be computed again.
+                return operation.compute();
+            }
+        } else {
+            try {
+                // The output may have been cached between the first lookup and claiming the computation.
+                Optional<File> computedOptional = get(key);
+                File output;
+                if (computedOptional.isPresent()) {
+                    output = computedOptional.orElseThrow();
+                } else {
+                    output = operation.compute();
+                    put(key, output);
+                }
+                computation.complete(null);
+                return output;
+            } catch (IOException | RuntimeException | Error e) {
+                computation.completeExceptionally(e);
+                throw e;
+            } finally {
+                synchronized (IN_FLIGHT) {
+                    IN_FLIGHT.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets a cached output.
+     *
+     * @param key The key of the output, from {@link #getKey(File, String, Guild)}.
+     * @return An {@link Optional} describing a copy of the cached output, which the caller owns.
+     * The optional will be empty if the output is not cached.
+     */
+    public static Optional<File> get(String key) {
+        try {
+            return CACHE.get(key, null);
+        } catch (IOException e) {
+            Main.getLogger().error("Failed to get cached command output!", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Caches an output.
+     *
+     * @param key    The key of the output, from {@link #getKey(File, String, Guild)}.
+     * @param output The output file. The caller keeps ownership of this file.
+     */
+    public static void put(String key, File output) {
+        try {
+            CACHE.put(key, output);
+        } catch (IOException e) {
+            Main.getLogger().error("Failed to cache command output!", e);
+        }
+    }
+
+    private static void await(CompletableFuture<Void> computation) throws IOException {
+        try {
+            computation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an identical command to finish!");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            } else if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (cause instanceof Error error) {
+                throw error;
+            } else {
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    public static long getHits() {
+        return CACHE.getHits();
+    }
+
+    public static long getMisses() {
+        return CACHE.getMisses();
+    }
+
+    /**
+     * Computes an output that isn't cached.
+     */
+    @FunctionalInterface
+    public interface Operation {
+
+        File compute() throws IOException;
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.shaksternano.mediamanipulator.emoji;
+
+import com.google.common.collect.ImmutableMap;
+import io.github.shaksternano.mediamanipulator.Main;
+import io.github.shaksternano.mediamanipulator.io.FileUtil;
+
+import java.io.*;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The <a href="https://github.com/twitter/twemoji">Twemoji</a> images bundled with the program,
+ * packed into a single atlas resource by {@link EmojiUnicodesFileGenerator}, so that emojis can be
+ * drawn without downloading them. The atlas is loaded into memory once at startup.
+ * The atlas is not generated as part of the build. {@link EmojiUnicodesFileGenerator} has to be run,
+ * and its output committed alongside {@code emoji_unicodes.txt}, for emojis to be bundled.
+ * <p>
+ * The atlas starts with an offset table: the number of entries as an int, then for each entry
+ * its unicode as a modified UTF-8 string, and the offset and length of its PNG image as ints.
+ * The PNG images follow the table, with offsets relative to the end of the table.
+ */
+public class EmojiAtlas {
+
+    public static final String ATLAS_RESOURCE_PATH = "emoji/emoji_atlas.bin";
+
+    private static byte[] images = new byte[0];
+    private static Map<String, Slice> slices = ImmutableMap.of();
+
+    public static void initEmojiAtlas() {
+        long startTime = System.currentTimeMillis();
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(FileUtil.getResourceInRootPackage(ATLAS_RESOURCE_PATH)))) {
+            int entryCount = inputStream.readInt();
+            ImmutableMap.Builder<String, Slice> builder = ImmutableMap.builderWithExpectedSize(entryCount);
+            for (int i = 0; i < entryCount; i++) {
+                builder.put(inputStream.readUTF(), new Slice(inputStream.readInt(), inputStream.readInt()));
+            }
+            slices = builder.build();
+            images = inputStream.readAllBytes();
+            Main.getLogger().info("Loaded " + entryCount + " bundled emojis in " + (System.currentTimeMillis() - startTime) + "ms!");
+        } catch (FileNotFoundException e) {
+            Main.getLogger().warn("No bundled emoji atlas found at " + ATLAS_RESOURCE_PATH + ", emojis will be downloaded instead. Run " + EmojiUnicodesFileGenerator.class.getSimpleName() + " to generate it.");
+        } catch (IOException e) {
+            Main.getLogger().error("Error while loading the bundled emoji atlas!", e);
+        }
+    }
+
+    /**
+     * Gets the PNG image of a bundled emoji.
+     *
+     * @param unicode The unicode of the emoji, as used by {@link EmojiUtil#getEmojiUrl(String)}.
+     * @return An {@link Optional} describing an {@link InputStream} over the emoji's PNG image.
+     * The Optional will be empty if the emoji isn't bundled.
+     */
+    public static Optional<InputStream> getImage(String unicode) {
+        Slice slice = slices.get(unicode.toLowerCase());
+        if (slice == null || slice.offset() + slice.length() > images.length) {
+            return Optional.empty();
+        } else {
+            return Optional.of(new ByteArrayInputStream(images, slice.offset(), slice.length()));
+        }
+    }
+
+    private record Slice(int offset, int length) {
+    }
+}
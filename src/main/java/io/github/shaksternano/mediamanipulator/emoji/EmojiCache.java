@@ -0,0 +1,110 @@
+package io.github.shaksternano.mediamanipulator.emoji;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.github.shaksternano.mediamanipulator.graphics.drawable.EmojiDrawable;
+import io.github.shaksternano.mediamanipulator.image.imagemedia.ImageMedia;
+import io.github.shaksternano.mediamanipulator.image.reader.util.ImageReaders;
+import io.github.shaksternano.mediamanipulator.image.util.ImageUtil;
+import io.github.shaksternano.mediamanipulator.util.MiscUtil;
+import io.github.shaksternano.mediamanipulator.util.NetworkUtil;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A least recently used cache of decoded emoji frames, shared by every command.
+ * Each emoji is only loaded and decoded once, and each height it is resized to is only resized once.
+ * The cache is bounded by the total size of the decoded frames.
+ */
+public class EmojiCache {
+
+    /**
+     * The maximum total size of the decoded frames, 64MB.
+     */
+    private static final long MAXIMUM_SIZE = 64L * MiscUtil.TO_MB;
+
+    /**
+     * The height used in the key of an emoji's frames before they are resized.
+     */
+    private static final int ORIGINAL_HEIGHT = -1;
+
+    private static final Cache<Key, List<BufferedImage>> FRAMES = CacheBuilder.newBuilder()
+            .maximumWeight(MAXIMUM_SIZE)
+            .weigher(EmojiCache::getSize)
+            .build();
+
+    /**
+     * Gets a drawable of an emoji.
+     *
+     * @param url The URL of the emoji's image, which identifies the emoji.
+     * @return A new drawable of the emoji, sharing its frames with the cache.
+     * @throws IOException If an error occurs while downloading or decoding the emoji.
+     */
+    public static EmojiDrawable getDrawable(String url) throws IOException {
+        try {
+            List<BufferedImage> frames = FRAMES.get(new Key(url, ORIGINAL_HEIGHT), () -> load(url));
+            return new EmojiDrawable(url, frames);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            } else {
+                throw new IOException("Failed to load emoji from " + url + "!", cause);
+            }
+        }
+    }
+
+    /**
+     * Gets the frames of an emoji resized to a height.
+     *
+     * @param url            The URL of the emoji's image, which identifies the emoji.
+     * @param originalFrames The frames of the emoji before they were resized.
+     * @param height         The height to resize to.
+     * @return The resized frames.
+     */
+    public static List<BufferedImage> getResizedFrames(String url, List<BufferedImage> originalFrames, int height) {
+        return FRAMES.asMap().computeIfAbsent(new Key(url, height), key -> originalFrames.stream()
+                .map(frame -> ImageUtil.fitHeight(frame, height))
+                .collect(ImmutableList.toImmutableList())
+        );
+    }
+
+    /**
+     * Decodes an emoji, taking it from the {@link EmojiAtlas} if it is bundled,
+     * and downloading it with a single request otherwise.
+     */
+    private static List<BufferedImage> load(String url) throws IOException {
+        Optional<InputStream> bundledImageOptional = EmojiUtil.getBundledEmojiImage(url);
+        ImageMedia imageMedia;
+        if (bundledImageOptional.isPresent()) {
+            imageMedia = ImageReaders.read(bundledImageOptional.orElseThrow(), "png", null);
+        } else {
+            byte[] bytes = NetworkUtil.httpGetBytes(url);
+            String imageFormat = ImageUtil.getImageFormat(new ByteArrayInputStream(bytes));
+            imageMedia = ImageReaders.read(new ByteArrayInputStream(bytes), imageFormat, null);
+        }
+
+        try (imageMedia) {
+            return ImmutableList.copyOf(imageMedia.toNormalisedImages());
+        }
+    }
+
+    private static int getSize(Key key, List<BufferedImage> frames) {
+        long size = 0;
+        for (BufferedImage frame : frames) {
+            size += (long) frame.getWidth() * frame.getHeight() * 4;
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    private record Key(String url, int height) {
+    }
+}
@@ -1,19 +1,22 @@
 package io.github.shaksternano.mediamanipulator.emoji;
 
+import com.google.common.collect.Maps;
 import io.github.shaksternano.mediamanipulator.io.FileUtil;
 import io.github.shaksternano.mediamanipulator.util.MiscUtil;
+import io.github.shaksternano.mediamanipulator.util.NetworkUtil;
 import io.github.shaksternano.mediamanipulator.util.github.GithubUtil;
 import org.slf4j.Logger;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
 import java.nio.file.Files;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 /**
- * Generates a file containing emoji unicodes.
+ * Generates a file containing emoji unicodes, and an {@link EmojiAtlas} of their images.
  */
 public class EmojiUnicodesFileGenerator {
 
@@ -36,6 +39,8 @@ public class EmojiUnicodesFileGenerator {
 
     private static final String EMOJI_UNICODES_FILE_NAME = "emoji_unicodes.txt";
 
+    private static final String EMOJI_ATLAS_FILE_NAME = "emoji_atlas.bin";
+
     /**
      * The program's main class.
      *
@@ -78,6 +83,8 @@ public class EmojiUnicodesFileGenerator {
                             } catch (IOException e) {
                                 LOGGER.error("Failed to create emoji unicodes file under \"" + emojiUnicodesFile + "\"!", e);
                             }
+
+                            generateEmojiAtlas(directory, sha, fileNames);
                         }
                     },
                     () -> LOGGER.error("Failed to load emoji unicodes, could not get the latest release tag commit SHA!")
@@ -88,4 +95,50 @@ public class EmojiUnicodesFileGenerator {
             LOGGER.error("Failed to create emoji unicodes file! Could not create parent directory \"" + directory + "\"!");
         }
     }
+
+    /**
+     * Downloads the 72x72 <a href="https://github.com/twitter/twemoji">Twemoji</a> images
+     * and packs them into a single {@link EmojiAtlas} file.
+     * The relative path of the generated file will be {@code src/main/resources/emoji/emoji_atlas.bin}.
+     *
+     * @param directory The directory to create the atlas in.
+     * @param sha       The commit SHA of the Twemoji release to use.
+     * @param fileNames The file names of the images.
+     */
+    private static void generateEmojiAtlas(File directory, String sha, List<String> fileNames) {
+        long startTime = System.currentTimeMillis();
+        String assetsUrl = "https://raw.githubusercontent.com/" + REPOSITORY_OWNER + "/" + REPOSITORY_NAME + "/" + sha + "/assets/72x72/";
+        List<Map.Entry<String, byte[]>> images = fileNames.parallelStream()
+                .map(fileName -> {
+                    try {
+                        String unicode = com.google.common.io.Files.getNameWithoutExtension(fileName).toLowerCase();
+                        return Maps.immutableEntry(unicode, NetworkUtil.httpGetBytes(assetsUrl + fileName));
+                    } catch (IOException e) {
+                        LOGGER.error("Failed to download emoji image \"" + fileName + "\", skipping it!", e);
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .toList();
+
+        File emojiAtlasFile = new File(directory, EMOJI_ATLAS_FILE_NAME);
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(emojiAtlasFile)))) {
+            outputStream.writeInt(images.size());
+            int offset = 0;
+            for (Map.Entry<String, byte[]> image : images) {
+                outputStream.writeUTF(image.getKey());
+                outputStream.writeInt(offset);
+                outputStream.writeInt(image.getValue().length);
+                offset += image.getValue().length;
+            }
+            for (Map.Entry<String, byte[]> image : images) {
+                outputStream.write(image.getValue());
+            }
+
+            long totalTime = System.currentTimeMillis() - startTime;
+            LOGGER.info("Created emoji atlas file \"" + emojiAtlasFile + "\" with " + images.size() + " emojis (" + offset / 1024 + "KB) in " + totalTime + "ms!");
+        } catch (IOException e) {
+            LOGGER.error("Failed to create emoji atlas file under \"" + emojiAtlasFile + "\"!", e);
+        }
+    }
 }
@@ -6,11 +6,16 @@ import io.github.shaksternano.mediamanipulator.io.FileUtil;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Optional;
 import java.util.Set;
 
 public class EmojiUtil {
 
+    private static final String EMOJI_URL_PREFIX = "https://raw.githubusercontent.com/twitter/twemoji/master/assets/72x72/";
+    private static final String EMOJI_URL_SUFFIX = ".png";
+
     private static Set<String> emojiUnicodeSet = ImmutableSet.of();
 
     public static void initEmojiUnicodeSet() {
@@ -31,6 +36,22 @@ public class EmojiUtil {
     }
 
     public static String getEmojiUrl(String unicode) {
-        return "https://raw.githubusercontent.com/twitter/twemoji/master/assets/72x72/" + unicode + ".png";
+        return EMOJI_URL_PREFIX + unicode + EMOJI_URL_SUFFIX;
+    }
+
+    /**
+     * Gets the image of an emoji from the {@link EmojiAtlas}, if the URL is a Twemoji URL from {@link #getEmojiUrl(String)}.
+     *
+     * @param url The URL of the emoji.
+     * @return An {@link Optional} describing an {@link InputStream} over the emoji's PNG image.
+     * The Optional will be empty if the URL isn't a Twemoji URL or the emoji isn't bundled.
+     */
+    public static Optional<InputStream> getBundledEmojiImage(String url) {
+        if (url.startsWith(EMOJI_URL_PREFIX) && url.endsWith(EMOJI_URL_SUFFIX)) {
+            String unicode = url.substring(EMOJI_URL_PREFIX.length(), url.length() - EMOJI_URL_SUFFIX.length());
+            return EmojiAtlas.getImage(unicode);
+        } else {
+            return Optional.empty();
+        }
     }
 }
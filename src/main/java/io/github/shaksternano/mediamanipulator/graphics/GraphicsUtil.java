@@ -6,33 +6,85 @@ import io.github.shaksternano.mediamanipulator.io.FileUtil;
 import java.awt.*;
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.util.function.ToIntFunction;
 
 public class GraphicsUtil {
 
-    public static int fontFitWidth(int maxWidth, Drawable text, Graphics2D graphics) {
-        Font font = graphics.getFont();
-        int textWidth = text.getWidth(graphics);
-        while (textWidth > maxWidth) {
-            float sizeRatio = (float) textWidth / maxWidth;
-            font = font.deriveFont(font.getSize() - sizeRatio);
-            graphics.setFont(font);
-            textWidth = text.getWidth(graphics);
-        }
+    /**
+     * The smallest font size that text is shrunk to when fitting it.
+     */
+    private static final float MIN_FONT_SIZE = 1;
 
-        return textWidth;
+    /**
+     * The precision that font sizes are searched with when fitting text.
+     */
+    private static final float FONT_SIZE_STEP = 0.5F;
+
+    /**
+     * Shrinks the font of the graphics until the width of the text fits.
+     *
+     * @param maxWidth The maximum width of the text.
+     * @param text     The text.
+     * @param graphics The graphics that the text will be drawn on.
+     * @return The width of the text with the new font.
+     * @see #fontFit(int, ToIntFunction, Graphics2D)
+     */
+    public static int fontFitWidth(int maxWidth, Drawable text, Graphics2D graphics) {
+        return fontFit(maxWidth, text::getWidth, graphics);
     }
 
+    /**
+     * Shrinks the font of the graphics until the height of the text fits.
+     *
+     * @param maxHeight The maximum height of the text.
+     * @param text      The text.
+     * @param graphics  The graphics that the text will be drawn on.
+     * @return The height of the text with the new font.
+     * @see #fontFit(int, ToIntFunction, Graphics2D)
+     */
     public static int fontFitHeight(int maxHeight, Drawable text, Graphics2D graphics) {
+        return fontFit(maxHeight, text::getHeight, graphics);
+    }
+
+    /**
+     * Sets the font of the graphics to the largest size, no larger than its current size, at which
+     * a measurement of the text is within a maximum. Sizes are binary searched in steps of
+     * {@link #FONT_SIZE_STEP} down to {@link #MIN_FONT_SIZE}, so the text is measured about
+     * log2(size / step) times. If the text doesn't fit at any size, the smallest size is used.
+     *
+     * @param max      The maximum measurement.
+     * @param measure  Measures the text with the font of the graphics.
+     * @param graphics The graphics that the text will be drawn on.
+     * @return The measurement of the text with the new font.
+     */
+    private static int fontFit(int max, ToIntFunction<Graphics2D> measure, Graphics2D graphics) {
         Font font = graphics.getFont();
-        int textHeight = text.getHeight(graphics);
-        while (textHeight > maxHeight) {
-            float sizeRatio = (float) textHeight / maxHeight;
-            font = font.deriveFont(font.getSize() - sizeRatio);
-            graphics.setFont(font);
-            textHeight = text.getHeight(graphics);
+        int measurement = measure.applyAsInt(graphics);
+        int minSteps = Math.round(MIN_FONT_SIZE / FONT_SIZE_STEP);
+        int maxSteps = (int) Math.ceil(font.getSize2D() / FONT_SIZE_STEP) - 1;
+        if (measurement <= max || maxSteps < minSteps) {
+            return measurement;
+        }
+
+        int bestSteps = minSteps;
+        int bestMeasurement = -1;
+        int low = minSteps;
+        int high = maxSteps;
+        while (low <= high) {
+            int steps = (low + high) >>> 1;
+            graphics.setFont(font.deriveFont(steps * FONT_SIZE_STEP));
+            measurement = measure.applyAsInt(graphics);
+            if (measurement <= max) {
+                bestSteps = steps;
+                bestMeasurement = measurement;
+                low = steps + 1;
+            } else {
+                high = steps - 1;
+            }
         }
 
-        return textHeight;
+        graphics.setFont(font.deriveFont(bestSteps * FONT_SIZE_STEP));
+        return bestMeasurement < 0 ? measure.applyAsInt(graphics) : bestMeasurement;
     }
 
     public static Shape loadShape(String resourcePath) throws IOException {
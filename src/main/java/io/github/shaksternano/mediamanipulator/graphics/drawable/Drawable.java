@@ -4,17 +4,31 @@ import java.awt.*;
 
 /**
  * Represents an object that can be drawn on a {@link Graphics2D} object.
+ * Drawing doesn't change the drawable, so the frames of an animated drawable
+ * can be drawn in any order, from multiple threads.
  */
 public interface Drawable {
 
     /**
-     * Draws the drawable.
+     * Draws the first frame of the drawable.
      *
      * @param graphics The graphics object to draw on.
      * @param x        The x coordinate of the top left corner of the drawable.
      * @param y        The y coordinate of the top left corner of the drawable.
      */
-    void draw(Graphics2D graphics, int x, int y);
+    default void draw(Graphics2D graphics, int x, int y) {
+        draw(graphics, x, y, 0);
+    }
+
+    /**
+     * Draws a frame of the drawable.
+     *
+     * @param graphics   The graphics object to draw on.
+     * @param x          The x coordinate of the top left corner of the drawable.
+     * @param y          The y coordinate of the top left corner of the drawable.
+     * @param frameIndex The index of the frame to draw. Drawables with fewer frames loop.
+     */
+    void draw(Graphics2D graphics, int x, int y, int frameIndex);
 
     /**
      * Gets the width of the drawable.
@@ -52,5 +66,12 @@ public interface Drawable {
 
     int getFrameCount();
 
-    boolean sameAsPreviousFrame();
+    /**
+     * Checks whether a frame of the drawable looks the same as the frame before it.
+     * The frame before the first frame is the last frame.
+     *
+     * @param frameIndex The index of the frame.
+     * @return Whether the frame looks the same as the frame before it.
+     */
+    boolean sameAsPreviousFrame(int frameIndex);
 }
@@ -0,0 +1,40 @@
+package io.github.shaksternano.mediamanipulator.graphics.drawable;
+
+import io.github.shaksternano.mediamanipulator.emoji.EmojiCache;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * An {@link ImageDrawable} of an emoji, whose resized frames come from the {@link EmojiCache}.
+ */
+public class EmojiDrawable extends ImageDrawable {
+
+    private final String URL;
+    private final List<BufferedImage> ORIGINAL_FRAMES;
+
+    /**
+     * Creates a new emoji drawable.
+     *
+     * @param url    The URL of the emoji's image, which identifies the emoji.
+     * @param frames The frames of the emoji.
+     */
+    public EmojiDrawable(String url, List<BufferedImage> frames) {
+        this(url, frames, frames);
+    }
+
+    private EmojiDrawable(String url, List<BufferedImage> originalFrames, List<BufferedImage> frames) {
+        super(frames);
+        URL = url;
+        ORIGINAL_FRAMES = originalFrames;
+    }
+
+    @Override
+    public Drawable resizeToHeight(int height) {
+        if (getHeight(null) == height) {
+            return this;
+        } else {
+            return new EmojiDrawable(URL, ORIGINAL_FRAMES, EmojiCache.getResizedFrames(URL, ORIGINAL_FRAMES, height));
+        }
+    }
+}
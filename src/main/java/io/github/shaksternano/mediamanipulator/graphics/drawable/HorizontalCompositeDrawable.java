@@ -6,9 +6,9 @@ import java.util.Objects;
 public class HorizontalCompositeDrawable extends ListCompositeDrawable {
 
     @Override
-    public void draw(Graphics2D graphics, int x, int y) {
+    public void draw(Graphics2D graphics, int x, int y, int frameIndex) {
         for (Drawable part : getParts()) {
-            part.draw(graphics, x, y);
+            part.draw(graphics, x, y, frameIndex);
             x += part.getWidth(graphics);
         }
     }
@@ -12,7 +12,6 @@ import java.util.Objects;
 public class ImageDrawable implements Drawable {
 
     private final List<BufferedImage> images;
-    private int imageIndex = 0;
 
     public ImageDrawable(Iterable<BufferedImage> images) {
         if (images.iterator().hasNext()) {
@@ -23,12 +22,8 @@ public class ImageDrawable implements Drawable {
     }
 
     @Override
-    public void draw(Graphics2D graphics, int x, int y) {
-        graphics.drawImage(images.get(imageIndex), x, y, null);
-        imageIndex++;
-        if (imageIndex >= images.size()) {
-            imageIndex = 0;
-        }
+    public void draw(Graphics2D graphics, int x, int y, int frameIndex) {
+        graphics.drawImage(getImage(frameIndex), x, y, null);
     }
 
     @Override
@@ -77,18 +72,17 @@ public class ImageDrawable implements Drawable {
     }
 
     @Override
-    public boolean sameAsPreviousFrame() {
-        int previousIndex = imageIndex - 1;
-        if (previousIndex < 0) {
-            previousIndex = images.size() - 1;
-        }
+    public boolean sameAsPreviousFrame(int frameIndex) {
+        return getImage(frameIndex).equals(getImage(frameIndex - 1));
+    }
 
-        return images.get(imageIndex).equals(images.get(previousIndex));
+    private BufferedImage getImage(int frameIndex) {
+        return images.get(Math.floorMod(frameIndex, images.size()));
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(images, imageIndex);
+        return Objects.hashCode(images);
     }
 
     @Override
@@ -96,8 +90,7 @@ public class ImageDrawable implements Drawable {
         if (obj == this) {
             return true;
         } else if (obj instanceof ImageDrawable other) {
-            return Objects.equals(images, other.images)
-                    && Objects.equals(imageIndex, other.imageIndex);
+            return Objects.equals(images, other.images);
         } else {
             return false;
         }
@@ -116,10 +109,7 @@ public class ImageDrawable implements Drawable {
             }
         }
 
-        builder.append("]")
-                .append(", ImageIndex: ")
-                .append(imageIndex)
-                .append("]");
+        builder.append("]]");
         return builder.toString();
     }
 }
@@ -25,9 +25,9 @@ public abstract class ListCompositeDrawable implements CompositeDrawable {
     }
 
     @Override
-    public boolean sameAsPreviousFrame() {
+    public boolean sameAsPreviousFrame(int frameIndex) {
         for (Drawable part : parts) {
-            if (!part.sameAsPreviousFrame()) {
+            if (!part.sameAsPreviousFrame(frameIndex)) {
                 return false;
             }
         }
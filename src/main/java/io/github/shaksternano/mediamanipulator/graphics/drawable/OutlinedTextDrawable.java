@@ -1,14 +1,26 @@
 package io.github.shaksternano.mediamanipulator.graphics.drawable;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.github.shaksternano.mediamanipulator.image.util.ImageUtil;
 
 import java.awt.*;
 import java.awt.font.FontRenderContext;
 import java.awt.font.GlyphVector;
+import java.awt.geom.Rectangle2D;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 
 public class OutlinedTextDrawable extends TextDrawable {
 
+    /**
+     * Glyph outlines shared by every outlined text drawable, as the same text is measured
+     * and drawn many times at the same font size while a paragraph is fitted and drawn.
+     */
+    private static final Cache<OutlineKey, Outline> OUTLINES = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .build();
+
     private final Color TEXT_FILL_COLOR;
     private final Color TEXT_OUTLINE_COLOR;
     private final float TEXT_OUTLINE_WIDTH_RATIO;
@@ -21,54 +33,55 @@ public class OutlinedTextDrawable extends TextDrawable {
     }
 
     @Override
-    public void draw(Graphics2D graphics, int x, int y) {
-        Font font = graphics.getFont();
-        float textOutlineWidth = font.getSize2D() * TEXT_OUTLINE_WIDTH_RATIO;
-        int actualX = (int) (x + textOutlineWidth);
+    public void draw(Graphics2D graphics, int x, int y, int frameIndex) {
+        Outline outline = getOutline(graphics);
+        int actualX = (int) (x + outline.outlineWidth());
         int actualY = y + graphics.getFontMetrics().getAscent();
-        BasicStroke outlineStroke = new BasicStroke(textOutlineWidth);
 
         Color originalColor = graphics.getColor();
-        Stroke originalStroke = graphics.getStroke();
         RenderingHints originalHints = graphics.getRenderingHints();
 
-        Shape textShape = createTextShape(graphics);
-
         ImageUtil.configureTextDrawQuality(graphics);
 
-        graphics.setColor(TEXT_OUTLINE_COLOR);
-        graphics.setStroke(outlineStroke);
         graphics.translate(actualX, actualY);
-        graphics.draw(textShape);
+        graphics.setColor(TEXT_OUTLINE_COLOR);
+        graphics.fill(outline.strokedShape());
 
         graphics.setColor(TEXT_FILL_COLOR);
-        graphics.fill(textShape);
+        graphics.fill(outline.textShape());
 
         graphics.setColor(originalColor);
-        graphics.setStroke(originalStroke);
         graphics.setRenderingHints(originalHints);
         graphics.translate(-actualX, -actualY);
     }
 
     @Override
     public int getWidth(Graphics2D graphicsContext) {
-        Font font = graphicsContext.getFont();
-        float textOutlineWidth = font.getSize2D() * TEXT_OUTLINE_WIDTH_RATIO;
-        return (int) (createTextShape(graphicsContext).getBounds2D().getWidth() + textOutlineWidth * 2);
+        Outline outline = getOutline(graphicsContext);
+        return (int) (outline.textBounds().getWidth() + outline.outlineWidth() * 2);
     }
 
     @Override
     public int getHeight(Graphics2D graphicsContext) {
-        Font font = graphicsContext.getFont();
-        float textOutlineWidth = font.getSize2D() * TEXT_OUTLINE_WIDTH_RATIO;
-        return (int) (createTextShape(graphicsContext).getBounds2D().getHeight() + textOutlineWidth * 2);
+        Outline outline = getOutline(graphicsContext);
+        return (int) (outline.textBounds().getHeight() + outline.outlineWidth() * 2);
     }
 
-    private Shape createTextShape(Graphics2D graphicsContext) {
-        Font font = graphicsContext.getFont();
-        FontRenderContext fontRenderContext = graphicsContext.getFontRenderContext();
-        GlyphVector glyphVector = font.createGlyphVector(fontRenderContext, getText());
-        return glyphVector.getOutline();
+    private Outline getOutline(Graphics2D graphicsContext) {
+        OutlineKey key = new OutlineKey(getText(), graphicsContext.getFont(), graphicsContext.getFontRenderContext(), TEXT_OUTLINE_WIDTH_RATIO);
+        try {
+            return OUTLINES.get(key, () -> createOutline(key));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Outline createOutline(OutlineKey key) {
+        GlyphVector glyphVector = key.font().createGlyphVector(key.fontRenderContext(), key.text());
+        Shape textShape = glyphVector.getOutline();
+        float outlineWidth = key.font().getSize2D() * key.outlineWidthRatio();
+        Shape strokedShape = new BasicStroke(outlineWidth).createStrokedShape(textShape);
+        return new Outline(textShape, strokedShape, textShape.getBounds2D(), outlineWidth);
     }
 
     @Override
@@ -87,7 +100,7 @@ public class OutlinedTextDrawable extends TextDrawable {
     }
 
     @Override
-    public boolean sameAsPreviousFrame() {
+    public boolean sameAsPreviousFrame(int frameIndex) {
         return true;
     }
 
@@ -114,4 +127,18 @@ public class OutlinedTextDrawable extends TextDrawable {
     public String toString() {
         return getClass().getSimpleName() + "[Text: " + getText() + ", TextFillColor: " + TEXT_FILL_COLOR + ", TextOutlineColor: " + TEXT_OUTLINE_COLOR + ", TextOutlineWidth: " + TEXT_OUTLINE_WIDTH_RATIO + "]";
     }
+
+    private record OutlineKey(String text, Font font, FontRenderContext fontRenderContext, float outlineWidthRatio) {
+    }
+
+    /**
+     * The glyph outline of some text in a font.
+     *
+     * @param textShape    The outline of the text.
+     * @param strokedShape The outline of the text, stroked to the outline width.
+     * @param textBounds   The bounds of the text's outline.
+     * @param outlineWidth The width of the stroke around the text.
+     */
+    private record Outline(Shape textShape, Shape strokedShape, Rectangle2D textBounds, float outlineWidth) {
+    }
 }
@@ -4,6 +4,7 @@ import io.github.shaksternano.mediamanipulator.graphics.TextAlignment;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
+import java.awt.font.FontRenderContext;
 import java.util.List;
 import java.util.*;
 import java.util.function.Function;
@@ -13,7 +14,17 @@ public class ParagraphCompositeDrawable extends ListCompositeDrawable {
     private final TextAlignment ALIGNMENT;
     private final int MAX_WIDTH;
 
-    private static final Drawable SPACE = new TextDrawable(" ");
+    /**
+     * The maximum number of layouts to keep, one for each font the paragraph has been measured or drawn with.
+     */
+    private static final int MAX_CACHED_LAYOUTS = 4;
+
+    private final Map<LayoutKey, ParagraphLayout> LAYOUTS = new LinkedHashMap<>(MAX_CACHED_LAYOUTS, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LayoutKey, ParagraphLayout> eldest) {
+            return size() > MAX_CACHED_LAYOUTS;
+        }
+    };
 
     public ParagraphCompositeDrawable(TextAlignment alignment, int maxWidth) {
         ALIGNMENT = alignment;
@@ -21,137 +32,39 @@ public class ParagraphCompositeDrawable extends ListCompositeDrawable {
     }
 
     @Override
-    public void draw(Graphics2D graphics, int x, int y) {
-        FontMetrics metrics = graphics.getFontMetrics();
-        int lineHeight = metrics.getAscent() + metrics.getDescent();
-        int lineSpace = metrics.getLeading();
-        int lineWidth = 0;
-        int lineX;
-        int lineY = y;
-
-        List<Drawable> currentLine = new ArrayList<>();
-        for (int i = 0; i < getParts().size(); i++) {
-            Drawable part = getParts().get(i);
-            try {
-                part = part.resizeToHeight(lineHeight);
-                getParts().set(i, part);
-            } catch (UnsupportedOperationException ignored) {
-            }
-
-            int partWidth = part.getWidth(graphics);
-            int spaceWidth = SPACE.getWidth(graphics);
-            int newLineWidth = lineWidth + partWidth;
-            if (lineWidth > 0) {
-                newLineWidth += spaceWidth;
-            }
-
-            if (newLineWidth <= MAX_WIDTH || currentLine.isEmpty()) {
-                currentLine.add(part);
-                lineWidth = newLineWidth;
-            } else {
-                lineX = calculateTextXPosition(ALIGNMENT, x, lineWidth, MAX_WIDTH);
-
-                if (ALIGNMENT == TextAlignment.JUSTIFY) {
-                    spaceWidth += (MAX_WIDTH - lineWidth) / (currentLine.size() - 1);
-                }
-
-                for (Drawable linePart : currentLine) {
-                    linePart.draw(graphics, lineX, lineY);
-                    lineX += linePart.getWidth(graphics) + spaceWidth;
-                }
-
-                currentLine.clear();
-                currentLine.add(part);
-                lineWidth = partWidth;
-                lineY += lineHeight + lineSpace;
-            }
-        }
-
-        lineX = calculateTextXPosition(ALIGNMENT, x, lineWidth, MAX_WIDTH);
-        for (Drawable linePart : currentLine) {
-            linePart.draw(graphics, lineX, lineY);
-            lineX += linePart.getWidth(graphics) + SPACE.getWidth(graphics);
-        }
-    }
-
-    private static int calculateTextXPosition(TextAlignment alignment, int x, int lineWidth, int maxWidth) {
-        switch (alignment) {
-            case CENTER -> x += (maxWidth - lineWidth) / 2;
-            case RIGHT -> x += maxWidth - lineWidth;
-        }
-
-        return x;
+    public void draw(Graphics2D graphics, int x, int y, int frameIndex) {
+        getLayout(graphics).draw(graphics, x, y, frameIndex);
     }
 
     @Override
     public int getWidth(Graphics2D graphicsContext) {
-        FontMetrics metrics = graphicsContext.getFontMetrics();
-        int lineHeight = metrics.getAscent() + metrics.getDescent();
-        int lineWidth = 0;
-        int maxLineWidth = 0;
-
-        boolean currentLineIsEmpty = true;
-        for (Drawable part : getParts()) {
-            try {
-                part = part.resizeToHeight(lineHeight);
-            } catch (UnsupportedOperationException ignored) {
-            }
-
-            int partWidth = part.getWidth(graphicsContext);
-            int spaceWidth = SPACE.getWidth(graphicsContext);
-            int newLineWidth = lineWidth + partWidth;
-            if (lineWidth > 0) {
-                newLineWidth += spaceWidth;
-            }
-
-            if (newLineWidth <= MAX_WIDTH || currentLineIsEmpty) {
-                lineWidth = newLineWidth;
-                currentLineIsEmpty = false;
-            } else {
-                lineWidth = partWidth;
-                currentLineIsEmpty = true;
-            }
-
-            maxLineWidth = Math.max(maxLineWidth, lineWidth);
-        }
-
-        return maxLineWidth;
+        return getLayout(graphicsContext).getWidth();
     }
 
     @Override
     public int getHeight(Graphics2D graphicsContext) {
-        FontMetrics metrics = graphicsContext.getFontMetrics();
-        int lineHeight = metrics.getAscent() + metrics.getDescent();
-        int lineSpace = metrics.getLeading();
-        int lineWidth = 0;
-        int lineY = 0;
-
-        boolean currentLineIsEmpty = true;
-        for (Drawable part : getParts()) {
-            try {
-                part = part.resizeToHeight(lineHeight);
-            } catch (UnsupportedOperationException ignored) {
-            }
-
-            int partWidth = part.getWidth(graphicsContext);
-            int spaceWidth = SPACE.getWidth(graphicsContext);
-            int newLineWidth = lineWidth + partWidth;
-            if (lineWidth > 0) {
-                newLineWidth += spaceWidth;
-            }
+        return getLayout(graphicsContext).getHeight();
+    }
 
-            if (newLineWidth <= MAX_WIDTH || currentLineIsEmpty) {
-                lineWidth = newLineWidth;
-                currentLineIsEmpty = false;
-            } else {
-                lineWidth = partWidth;
-                lineY += lineHeight + lineSpace;
-                currentLineIsEmpty = true;
-            }
+    @Override
+    public void addPart(Drawable part) {
+        super.addPart(part);
+        synchronized (LAYOUTS) {
+            LAYOUTS.clear();
         }
+    }
 
-        lineY += lineHeight;
-        return lineY;
+    /**
+     * Gets the layout of the paragraph for the font of the graphics, creating it if it hasn't been created yet.
+     *
+     * @param graphics The graphics that the paragraph will be drawn on.
+     * @return The layout.
+     */
+    private ParagraphLayout getLayout(Graphics2D graphics) {
+        LayoutKey key = new LayoutKey(graphics.getFont(), graphics.getFontRenderContext());
+        synchronized (LAYOUTS) {
+            return LAYOUTS.computeIfAbsent(key, unused -> ParagraphLayout.create(getParts(), graphics, ALIGNMENT, MAX_WIDTH));
+        }
     }
 
     @Override
@@ -182,6 +95,12 @@ public class ParagraphCompositeDrawable extends ListCompositeDrawable {
         }
     }
 
+    /**
+     * Everything other than the parts that a layout depends on.
+     */
+    private record LayoutKey(Font font, FontRenderContext fontRenderContext) {
+    }
+
     public static class Builder {
 
         private final List<Drawable> words = new ArrayList<>();
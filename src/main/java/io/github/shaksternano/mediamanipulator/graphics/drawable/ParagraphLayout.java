@@ -0,0 +1,148 @@
+package io.github.shaksternano.mediamanipulator.graphics.drawable;
+
+import com.google.common.collect.ImmutableList;
+import io.github.shaksternano.mediamanipulator.graphics.TextAlignment;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The line breaks and part positions of a {@link ParagraphCompositeDrawable} for one font,
+ * so that the paragraph can be measured and drawn without measuring its parts again.
+ */
+public class ParagraphLayout {
+
+    private static final Drawable SPACE = new TextDrawable(" ");
+
+    private final List<Drawable> PARTS;
+    private final List<Offset> OFFSETS;
+    private final int WIDTH;
+    private final int HEIGHT;
+
+    private ParagraphLayout(List<Drawable> parts, List<Offset> offsets, int width, int height) {
+        PARTS = parts;
+        OFFSETS = offsets;
+        WIDTH = width;
+        HEIGHT = height;
+    }
+
+    /**
+     * Lays out the parts of a paragraph. Parts that can be resized are resized to the height of a line,
+     * and are put on the same line, separated by spaces, until the next part would make the line wider than
+     * the maximum width.
+     *
+     * @param parts     The parts of the paragraph.
+     * @param graphics  The graphics that the paragraph will be drawn on, with the font the paragraph will be drawn in.
+     * @param alignment The alignment of the lines.
+     * @param maxWidth  The maximum width of a line.
+     * @return The layout.
+     */
+    public static ParagraphLayout create(List<Drawable> parts, Graphics2D graphics, TextAlignment alignment, int maxWidth) {
+        FontMetrics metrics = graphics.getFontMetrics();
+        int lineHeight = metrics.getAscent() + metrics.getDescent();
+        int lineSpace = metrics.getLeading();
+        int spaceWidth = SPACE.getWidth(graphics);
+
+        List<Drawable> resizedParts = new ArrayList<>(parts.size());
+        List<List<Integer>> lines = new ArrayList<>();
+        List<Integer> lineWidths = new ArrayList<>();
+        List<Integer> partWidths = new ArrayList<>(parts.size());
+
+        List<Integer> currentLine = new ArrayList<>();
+        int lineWidth = 0;
+        for (Drawable part : parts) {
+            try {
+                part = part.resizeToHeight(lineHeight);
+            } catch (UnsupportedOperationException ignored) {
+            }
+
+            int partIndex = resizedParts.size();
+            resizedParts.add(part);
+            int partWidth = part.getWidth(graphics);
+            partWidths.add(partWidth);
+
+            int newLineWidth = lineWidth + partWidth;
+            if (lineWidth > 0) {
+                newLineWidth += spaceWidth;
+            }
+
+            if (newLineWidth <= maxWidth || currentLine.isEmpty()) {
+                currentLine.add(partIndex);
+                lineWidth = newLineWidth;
+            } else {
+                lines.add(currentLine);
+                lineWidths.add(lineWidth);
+                currentLine = new ArrayList<>();
+                currentLine.add(partIndex);
+                lineWidth = partWidth;
+            }
+        }
+        lines.add(currentLine);
+        lineWidths.add(lineWidth);
+
+        Offset[] offsets = new Offset[resizedParts.size()];
+        int width = 0;
+        int lineY = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            List<Integer> line = lines.get(i);
+            int currentLineWidth = lineWidths.get(i);
+            width = Math.max(width, currentLineWidth);
+
+            int gap = spaceWidth;
+            boolean lastLine = i == lines.size() - 1;
+            if (alignment == TextAlignment.JUSTIFY && !lastLine && line.size() > 1) {
+                gap += (maxWidth - currentLineWidth) / (line.size() - 1);
+            }
+
+            int lineX = calculateTextXPosition(alignment, currentLineWidth, maxWidth);
+            for (int partIndex : line) {
+                offsets[partIndex] = new Offset(lineX, lineY);
+                lineX += partWidths.get(partIndex) + gap;
+            }
+
+            if (!lastLine) {
+                lineY += lineHeight + lineSpace;
+            }
+        }
+
+        return new ParagraphLayout(ImmutableList.copyOf(resizedParts), ImmutableList.copyOf(offsets), width, lineY + lineHeight);
+    }
+
+    private static int calculateTextXPosition(TextAlignment alignment, int lineWidth, int maxWidth) {
+        return switch (alignment) {
+            case CENTER -> (maxWidth - lineWidth) / 2;
+            case RIGHT -> maxWidth - lineWidth;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Draws a frame of the parts at their positions.
+     *
+     * @param graphics   The graphics object to draw on.
+     * @param x          The x coordinate of the top left corner of the paragraph.
+     * @param y          The y coordinate of the top left corner of the paragraph.
+     * @param frameIndex The index of the frame to draw.
+     */
+    public void draw(Graphics2D graphics, int x, int y, int frameIndex) {
+        for (int i = 0; i < PARTS.size(); i++) {
+            Offset offset = OFFSETS.get(i);
+            PARTS.get(i).draw(graphics, x + offset.x(), y + offset.y(), frameIndex);
+        }
+    }
+
+    public int getWidth() {
+        return WIDTH;
+    }
+
+    public int getHeight() {
+        return HEIGHT;
+    }
+
+    /**
+     * The position of a part relative to the top left corner of the paragraph.
+     */
+    private record Offset(int x, int y) {
+    }
+}
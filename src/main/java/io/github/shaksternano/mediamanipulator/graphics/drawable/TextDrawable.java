@@ -12,7 +12,7 @@ public class TextDrawable implements Drawable {
     }
 
     @Override
-    public void draw(Graphics2D graphics, int x, int y) {
+    public void draw(Graphics2D graphics, int x, int y, int frameIndex) {
         graphics.drawString(TEXT, x, y + graphics.getFontMetrics().getAscent());
     }
 
@@ -43,7 +43,7 @@ public class TextDrawable implements Drawable {
     }
 
     @Override
-    public boolean sameAsPreviousFrame() {
+    public boolean sameAsPreviousFrame(int frameIndex) {
         return true;
     }
 
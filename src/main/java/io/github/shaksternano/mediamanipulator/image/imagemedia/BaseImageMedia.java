@@ -45,4 +45,8 @@ public abstract class BaseImageMedia implements ImageMedia {
     public Stream<Frame> parallelStream() {
         return StreamSupport.stream(spliterator(), true);
     }
+
+    @Override
+    public void close() {
+    }
 }
@@ -3,10 +3,11 @@ package io.github.shaksternano.mediamanipulator.image.imagemedia;
 import io.github.shaksternano.mediamanipulator.image.util.Frame;
 
 import java.awt.image.BufferedImage;
+import java.io.Closeable;
 import java.util.List;
 import java.util.stream.Stream;
 
-public interface ImageMedia extends Iterable<Frame> {
+public interface ImageMedia extends Iterable<Frame>, Closeable {
 
     /**
      * Gets the frame at the specified index.
@@ -36,4 +37,11 @@ public interface ImageMedia extends Iterable<Frame> {
     Stream<Frame> stream();
 
     Stream<Frame> parallelStream();
+
+    /**
+     * Releases any resources held outside the heap, such as scratch files that the frames are stored in.
+     * The frames of this ImageMedia, and of any ImageMedia that shares them, should not be used afterwards.
+     */
+    @Override
+    void close();
 }
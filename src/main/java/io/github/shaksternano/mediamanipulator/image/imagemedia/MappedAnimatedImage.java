@@ -0,0 +1,126 @@
+package io.github.shaksternano.mediamanipulator.image.imagemedia;
+
+import com.google.common.collect.ImmutableList;
+import io.github.shaksternano.mediamanipulator.image.util.Frame;
+import io.github.shaksternano.mediamanipulator.image.util.FrameSpillFile;
+import io.github.shaksternano.mediamanipulator.image.util.FrameTimeline;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * An animated image whose frames are stored on disk in a {@link FrameSpillFile}
+ * instead of on the heap. Frame images are only decoded when requested.
+ * The spill file is deleted when the image is closed.
+ */
+public class MappedAnimatedImage extends BaseImageMedia {
+
+    private final List<Frame> frames;
+
+    private final FrameTimeline timeline;
+
+    private final FrameSpillFile SPILL_FILE;
+
+    private MappedAnimatedImage(List<Frame> frames, FrameSpillFile spillFile) {
+        this.frames = frames;
+        timeline = FrameTimeline.of(this);
+        SPILL_FILE = spillFile;
+    }
+
+    /**
+     * Writes frames to a new {@link FrameSpillFile}, flushing each original frame once it has been written.
+     *
+     * @param frames The frames to write.
+     * @return A {@code MappedAnimatedImage} backed by the written frames.
+     * @throws IOException If an error occurs while writing the frames.
+     */
+    public static MappedAnimatedImage spill(Iterator<Frame> frames) throws IOException {
+        ImmutableList.Builder<Frame> builder = new ImmutableList.Builder<>();
+        FrameSpillFile spillFile = new FrameSpillFile();
+        try (spillFile) {
+            while (frames.hasNext()) {
+                Frame frame = frames.next();
+                builder.add(spillFile.write(frame));
+                frame.flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            spillFile.delete();
+            throw e;
+        }
+
+        return new MappedAnimatedImage(builder.build(), spillFile);
+    }
+
+    @Override
+    public Frame getFrame(int index) {
+        return frames.get(index);
+    }
+
+    @Override
+    public int getFrameCount() {
+        return frames.size();
+    }
+
+    /**
+     * Gets the normalised images of this animation. The images are decoded
+     * from disk when they are retrieved from the returned list, so the list
+     * should be iterated over rather than copied.
+     *
+     * @return A lazily decoded list of the normalised images.
+     */
+    @Override
+    public List<BufferedImage> toNormalisedImages() {
+        return new AbstractList<>() {
+
+            @Override
+            public BufferedImage get(int index) {
+                return frames.get(timeline.frameAt(index)).getImage();
+            }
+
+            @Override
+            public int size() {
+                return timeline.getSlotCount();
+            }
+        };
+    }
+
+    /**
+     * Deletes the spill file, even if some of the frames stored in it haven't been flushed.
+     */
+    @Override
+    public void close() {
+        SPILL_FILE.delete();
+    }
+
+    @Override
+    public Iterator<Frame> iterator() {
+        return frames.iterator();
+    }
+
+    @Override
+    public Spliterator<Frame> spliterator() {
+        return frames.spliterator();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(frames);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        } else if (obj instanceof MappedAnimatedImage other) {
+            return Objects.equals(frames, other.frames);
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[Frames: " + frames.size() + "]";
+    }
+}
@@ -0,0 +1,189 @@
+package io.github.shaksternano.mediamanipulator.image.reader;
+
+import io.github.shaksternano.mediamanipulator.exception.UnreadableFileException;
+import io.github.shaksternano.mediamanipulator.image.util.AwtFrame;
+import io.github.shaksternano.mediamanipulator.image.util.Frame;
+import io.github.shaksternano.mediamanipulator.image.util.ImageUtil;
+import org.jetbrains.annotations.Nullable;
+
+import javax.imageio.ImageIO;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Decodes the frames of a GIF one at a time. Each frame is drawn onto a canvas
+ * the size of the GIF according to the disposal method of the previous frame,
+ * so only the canvas and the frame being decoded are held in memory.
+ * The input is closed once every frame has been read, or if reading fails.
+ */
+class GifFrameIterator implements Iterator<Frame>, Closeable {
+
+    private static final String IMAGE_METADATA_FORMAT = "javax_imageio_gif_image_1.0";
+    private static final String STREAM_METADATA_FORMAT = "javax_imageio_gif_stream_1.0";
+
+    private final ImageInputStream INPUT;
+    private final javax.imageio.ImageReader READER;
+    @Nullable
+    private final Integer TYPE;
+    private final int FRAME_COUNT;
+    private final BufferedImage CANVAS;
+    private int index = 0;
+
+    /**
+     * Creates a new {@code GifFrameIterator}. This reads through the GIF once to count its frames,
+     * without decoding them.
+     *
+     * @param input The GIF to read. This is closed once every frame has been read.
+     * @param type  The type to convert the frame images to, or null to keep them as ARGB.
+     * @throws IOException If the GIF can't be read.
+     */
+    GifFrameIterator(@Nullable ImageInputStream input, @Nullable Integer type) throws IOException {
+        if (input == null) {
+            throw new UnreadableFileException("Could not open GIF!");
+        }
+
+        INPUT = input;
+        Iterator<javax.imageio.ImageReader> readers = ImageIO.getImageReadersByFormatName("gif");
+        if (!readers.hasNext()) {
+            input.close();
+            throw new UnreadableFileException("No GIF decoder found!");
+        }
+
+        READER = readers.next();
+        TYPE = type;
+        try {
+            READER.setInput(input, false, false);
+            FRAME_COUNT = READER.getNumImages(true);
+            if (FRAME_COUNT <= 0) {
+                throw new IOException("Could not read any frames!");
+            }
+
+            Dimension size = getLogicalScreenSize();
+            CANVAS = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public int getFrameCount() {
+        return FRAME_COUNT;
+    }
+
+    public int getWidth() {
+        return CANVAS.getWidth();
+    }
+
+    public int getHeight() {
+        return CANVAS.getHeight();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return index < FRAME_COUNT;
+    }
+
+    @Override
+    public Frame next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        try {
+            BufferedImage frameImage = READER.read(index);
+            IIOMetadataNode metadata = (IIOMetadataNode) READER.getImageMetadata(index).getAsTree(IMAGE_METADATA_FORMAT);
+            IIOMetadataNode descriptor = getChild(metadata, "ImageDescriptor");
+            IIOMetadataNode control = getChild(metadata, "GraphicControlExtension");
+            int x = descriptor == null ? 0 : Integer.parseInt(descriptor.getAttribute("imageLeftPosition"));
+            int y = descriptor == null ? 0 : Integer.parseInt(descriptor.getAttribute("imageTopPosition"));
+            String disposalMethod = control == null ? "none" : control.getAttribute("disposalMethod");
+            // The delay is stored in hundredths of a second.
+            int duration = control == null ? 0 : Integer.parseInt(control.getAttribute("delayTime")) * 10;
+
+            BufferedImage previous = disposalMethod.equals("restoreToPrevious") ? copy(CANVAS) : null;
+            Graphics2D graphics = CANVAS.createGraphics();
+            graphics.drawImage(frameImage, x, y, null);
+            graphics.dispose();
+            frameImage.flush();
+
+            BufferedImage image = copy(CANVAS);
+            if (TYPE != null) {
+                image = ImageUtil.convertType(image, TYPE);
+            }
+
+            if (previous != null) {
+                CANVAS.setData(previous.getRaster());
+            } else if (disposalMethod.equals("restoreToBackgroundColor")) {
+                Graphics2D clearGraphics = CANVAS.createGraphics();
+                clearGraphics.setComposite(AlphaComposite.Clear);
+                clearGraphics.fillRect(x, y, frameImage.getWidth(), frameImage.getHeight());
+                clearGraphics.dispose();
+            }
+
+            index++;
+            if (!hasNext()) {
+                close();
+            }
+
+            return new AwtFrame(image, duration);
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the GIF. Frames that haven't been read yet can't be read afterwards.
+     */
+    @Override
+    public void close() {
+        index = FRAME_COUNT;
+        READER.dispose();
+        try {
+            INPUT.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private Dimension getLogicalScreenSize() throws IOException {
+        IIOMetadata streamMetadata = READER.getStreamMetadata();
+        if (streamMetadata != null) {
+            IIOMetadataNode descriptor = getChild((IIOMetadataNode) streamMetadata.getAsTree(STREAM_METADATA_FORMAT), "LogicalScreenDescriptor");
+            if (descriptor != null) {
+                int width = Integer.parseInt(descriptor.getAttribute("logicalScreenWidth"));
+                int height = Integer.parseInt(descriptor.getAttribute("logicalScreenHeight"));
+                if (width > 0 && height > 0) {
+                    return new Dimension(width, height);
+                }
+            }
+        }
+
+        return new Dimension(READER.getWidth(0), READER.getHeight(0));
+    }
+
+    @Nullable
+    private static IIOMetadataNode getChild(IIOMetadataNode node, String name) {
+        for (int i = 0; i < node.getLength(); i++) {
+            if (node.item(i) instanceof IIOMetadataNode child && child.getNodeName().equals(name)) {
+                return child;
+            }
+        }
+
+        return null;
+    }
+
+    private static BufferedImage copy(BufferedImage image) {
+        return new BufferedImage(image.getColorModel(), image.copyData(null), image.isAlphaPremultiplied(), null);
+    }
+}
@@ -1,11 +1,13 @@
 package io.github.shaksternano.mediamanipulator.image.reader;
 
 import io.github.shaksternano.mediamanipulator.image.imagemedia.ImageMedia;
+import io.github.shaksternano.mediamanipulator.image.util.Frame;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Iterator;
 import java.util.Set;
 
 public interface ImageReader {
@@ -14,5 +16,19 @@ public interface ImageReader {
 
     ImageMedia read(File file, @Nullable Integer type) throws IOException;
 
+    /**
+     * Reads the frames of an image file one at a time. Readers that can decode
+     * frames lazily should override this so that the whole image doesn't
+     * have to be held in memory at once.
+     *
+     * @param file The file to read.
+     * @param type The type to convert each frame's image to, or null to keep the original type.
+     * @return An {@link Iterator} over the frames of the image.
+     * @throws IOException If an error occurs while opening the file.
+     */
+    default Iterator<Frame> readFrames(File file, @Nullable Integer type) throws IOException {
+        return read(file, type).iterator();
+    }
+
     Set<String> getSupportedFormats();
 }
@@ -0,0 +1,66 @@
+package io.github.shaksternano.mediamanipulator.image.reader;
+
+import com.google.common.collect.ImmutableSet;
+import io.github.shaksternano.mediamanipulator.image.imagemedia.ImageMedia;
+import io.github.shaksternano.mediamanipulator.image.imagemedia.MappedAnimatedImage;
+import io.github.shaksternano.mediamanipulator.image.util.Frame;
+import io.github.shaksternano.mediamanipulator.image.util.ImageMediaBuilder;
+import org.jetbrains.annotations.Nullable;
+
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Set;
+
+public class JavaxAnimatedGifReader implements ImageReader {
+
+    /**
+     * GIFs whose decoded frames would take up more than this many bytes, 64MB,
+     * have their frames stored on disk instead of on the heap.
+     * Each frame is written to disk as soon as it is decoded.
+     */
+    private static final long MAXIMUM_IN_MEMORY_SIZE = 67108864;
+
+    @Override
+    public ImageMedia read(InputStream inputStream, @Nullable Integer type) throws IOException {
+        return read(new GifFrameIterator(ImageIO.createImageInputStream(inputStream), type));
+    }
+
+    @Override
+    public ImageMedia read(File file, @Nullable Integer type) throws IOException {
+        return read(new GifFrameIterator(ImageIO.createImageInputStream(file), type));
+    }
+
+    /**
+     * Reads the frames of a GIF lazily, decoding each frame only when it is requested.
+     */
+    @Override
+    public Iterator<Frame> readFrames(File file, @Nullable Integer type) throws IOException {
+        return new GifFrameIterator(ImageIO.createImageInputStream(file), type);
+    }
+
+    private static ImageMedia read(GifFrameIterator frames) throws IOException {
+        try (frames) {
+            long decodedSize = (long) frames.getWidth() * frames.getHeight() * Integer.BYTES * frames.getFrameCount();
+            if (frames.getFrameCount() > 1 && decodedSize > MAXIMUM_IN_MEMORY_SIZE) {
+                return MappedAnimatedImage.spill(frames);
+            } else {
+                ImageMediaBuilder builder = new ImageMediaBuilder(true);
+                frames.forEachRemaining(builder::add);
+                return builder.build();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public Set<String> getSupportedFormats() {
+        return ImmutableSet.of(
+                "gif"
+        );
+    }
+}
@@ -5,19 +5,24 @@ import io.github.shaksternano.mediamanipulator.exception.UnreadableFileException
 import io.github.shaksternano.mediamanipulator.image.imagemedia.ImageMedia;
 import io.github.shaksternano.mediamanipulator.image.reader.ImageReader;
 import io.github.shaksternano.mediamanipulator.image.reader.JavaxImageReader;
-import io.github.shaksternano.mediamanipulator.image.reader.ScrimageAnimatedGifReader;
+import io.github.shaksternano.mediamanipulator.image.reader.JavaxAnimatedGifReader;
 import io.github.shaksternano.mediamanipulator.image.reader.ScrimageImageReader;
+import io.github.shaksternano.mediamanipulator.image.util.Frame;
 import io.github.shaksternano.mediamanipulator.image.writer.Image4jIcoImageWriter;
 import io.github.shaksternano.mediamanipulator.image.writer.util.ImageWriterRegistry;
 import org.jetbrains.annotations.Nullable;
 
+import javax.imageio.ImageIO;
 import java.io.*;
+import java.util.Iterator;
 import java.util.List;
 
 public class ImageReaders {
 
     public static void registerImageReaders() {
-        ImageReaderRegistry.register(new ScrimageAnimatedGifReader());
+        // Images read from streams are buffered in memory instead of in a temporary file.
+        ImageIO.setUseCache(false);
+        ImageReaderRegistry.register(new JavaxAnimatedGifReader());
         ImageReaderRegistry.register(new ScrimageImageReader());
         ImageReaderRegistry.register(new JavaxImageReader());
         ImageWriterRegistry.register(new Image4jIcoImageWriter());
@@ -40,22 +45,47 @@ public class ImageReaders {
         }
     }
 
+    /**
+     * Opens an image file so that its frames can be read one at a time.
+     * If a reader fails to open the file, the next registered reader is tried.
+     *
+     * @param file        The file to read.
+     * @param imageFormat The image format of the file.
+     * @param imageType   The type to convert each frame's image to, or null to keep the original type.
+     * @return An {@link Iterator} over the frames of the image.
+     * @throws IOException If no reader could open the file.
+     */
+    public static Iterator<Frame> readFrames(File file, String imageFormat, @Nullable Integer imageType) throws IOException {
+        List<ImageReader> readers = ImageReaderRegistry.getReaders(imageFormat);
+        if (readers.isEmpty()) {
+            throw new UnreadableFileException("No image reader found for image type " + imageFormat + "!");
+        } else {
+            for (ImageReader reader : readers) {
+                try {
+                    return reader.readFrames(file, imageType);
+                } catch (IOException e) {
+                    Main.getLogger().error("Error reading image with reader " + reader.getClass().getSimpleName() + "!", e);
+                }
+            }
+
+            throw new UnreadableFileException("Could not read image with type " + imageFormat + "!");
+        }
+    }
+
     public static ImageMedia read(InputStream inputStream, String imageFormat, @Nullable Integer imageType) throws IOException {
         List<ImageReader> readers = ImageReaderRegistry.getReaders(imageFormat);
         if (readers.isEmpty()) {
             throw new UnreadableFileException("No image reader found for image type " + imageFormat + "!");
         } else {
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            inputStream.transferTo(outputStream);
+            byte[] bytes = inputStream.readAllBytes();
             inputStream.close();
             for (ImageReader reader : readers) {
                 try {
-                    return reader.read(new ByteArrayInputStream(outputStream.toByteArray()), imageType);
+                    return reader.read(new ByteArrayInputStream(bytes), imageType);
                 } catch (IOException e) {
                     Main.getLogger().error("Error reading image with reader " + reader.getClass().getSimpleName() + "!", e);
                 }
             }
-            outputStream.close();
 
             throw new UnreadableFileException("Could not read image with type " + imageFormat + "!");
         }
@@ -54,18 +54,12 @@ public class AwtFrame implements Frame {
      */
     @Override
     public int getDuration() {
-        if (image == null) {
-            throw new IllegalStateException();
-        } else {
-            return duration;
-        }
+        return duration;
     }
 
     @Override
     public void flush() {
-        if (image == null) {
-            throw new IllegalStateException();
-        } else {
+        if (image != null) {
             image.flush();
             image = null;
         }
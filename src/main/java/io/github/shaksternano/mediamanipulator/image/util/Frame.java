@@ -23,6 +23,11 @@ public interface Frame {
      */
     int getDuration();
 
+    /**
+     * Releases the resources held by this frame.
+     * The image of the frame can no longer be used after it has been flushed, but the duration can.
+     * Flushing a frame that has already been flushed does nothing.
+     */
     void flush();
 
     Frame copyWithDuration(int duration);
@@ -0,0 +1,108 @@
+package io.github.shaksternano.mediamanipulator.image.util;
+
+import io.github.shaksternano.mediamanipulator.Main;
+import io.github.shaksternano.mediamanipulator.io.FileUtil;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A scratch file in the program's temporary directory that stores the
+ * pixels of frames as raw ARGB integers. Each frame written to the file
+ * is given its own memory-mapped region, which is only turned back into a
+ * {@link BufferedImage} when the frame's image is requested.
+ * The file is deleted once the file has been closed and every frame written to it has been flushed,
+ * or when {@link #delete()} is called by the owner of the frames.
+ */
+public class FrameSpillFile implements Closeable {
+
+    private final File FILE;
+    private final RandomAccessFile RANDOM_ACCESS_FILE;
+    private final FileChannel CHANNEL;
+    private long position = 0;
+    private int references = 0;
+    private boolean closed = false;
+
+    public FrameSpillFile() throws IOException {
+        FILE = FileUtil.getUniqueTempFile("frames.bin");
+        RANDOM_ACCESS_FILE = new RandomAccessFile(FILE, "rw");
+        CHANNEL = RANDOM_ACCESS_FILE.getChannel();
+    }
+
+    /**
+     * Writes the pixels of a frame to this file.
+     *
+     * @param frame The frame to write. This frame is not flushed.
+     * @return A {@link MappedFrame} backed by the written pixels.
+     * @throws IOException If an error occurs while writing the frame.
+     */
+    public synchronized MappedFrame write(Frame frame) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Spill file is closed!");
+        } else {
+            BufferedImage image = frame.getImage();
+            int width = image.getWidth();
+            int height = image.getHeight();
+            long size = (long) width * height * Integer.BYTES;
+
+            MappedByteBuffer buffer = CHANNEL.map(FileChannel.MapMode.READ_WRITE, position, size);
+            IntBuffer pixels = buffer.asIntBuffer();
+            pixels.put(ImageUtil.getArgbPixels(image));
+            pixels.rewind();
+            position += size;
+
+            return new MappedFrame(this, pixels, width, height, frame.getDuration());
+        }
+    }
+
+    /**
+     * Closes the file for writing. Frames that have already been written can still be read.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            CHANNEL.close();
+            RANDOM_ACCESS_FILE.close();
+            deleteIfUnused();
+        }
+    }
+
+    /**
+     * Closes this file and deletes it, even if frames written to it haven't been flushed.
+     * On most platforms, the mapped pixels of those frames stay readable until they are garbage collected.
+     */
+    public synchronized void delete() {
+        if (!closed) {
+            try {
+                close();
+            } catch (IOException e) {
+                Main.getLogger().error("Error closing frame spill file " + FILE + "!", e);
+            }
+        }
+
+        references = 0;
+        deleteIfUnused();
+    }
+
+    synchronized void retain() {
+        references++;
+    }
+
+    synchronized void release() {
+        references--;
+        deleteIfUnused();
+    }
+
+    private void deleteIfUnused() {
+        if (closed && references <= 0 && FILE.exists() && !FILE.delete()) {
+            Main.getLogger().warn("Failed to delete frame spill file " + FILE + ", it will be deleted on exit.");
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package io.github.shaksternano.mediamanipulator.image.util;
+
+import io.github.shaksternano.mediamanipulator.image.imagemedia.ImageMedia;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The normalised timeline of an {@link ImageMedia}, where time is split into slots of
+ * {@link Frame#GIF_MINIMUM_FRAME_DURATION} milliseconds. Rather than storing the frame
+ * shown in every slot, consecutive slots showing the same frame are stored as a single run.
+ */
+public class FrameTimeline {
+
+    /**
+     * The index of the frame shown during each run.
+     */
+    private final int[] FRAME_INDICES;
+
+    /**
+     * The slot that each run ends at, exclusive.
+     */
+    private final int[] RUN_ENDS;
+
+    private FrameTimeline(int[] frameIndices, int[] runEnds) {
+        FRAME_INDICES = frameIndices;
+        RUN_ENDS = runEnds;
+    }
+
+    /**
+     * Creates the timeline of an {@link ImageMedia}. The slots match those of
+     * {@link ImageMedia#toNormalisedImages()}, so frames that are too short
+     * to fill a slot on their own may not appear.
+     *
+     * @param imageMedia The image media to create the timeline of.
+     * @return The timeline of the image media.
+     */
+    public static FrameTimeline of(ImageMedia imageMedia) {
+        int[] frameIndices = new int[imageMedia.getFrameCount()];
+        int[] runEnds = new int[imageMedia.getFrameCount()];
+        int runCount = 0;
+        int slotCount = 0;
+
+        int millisCount = 0;
+        for (int i = 0; i < imageMedia.getFrameCount(); i++) {
+            int duration = imageMedia.getFrame(i).getDuration();
+            int slots = duration / Frame.GIF_MINIMUM_FRAME_DURATION;
+
+            millisCount += duration % Frame.GIF_MINIMUM_FRAME_DURATION;
+            if (millisCount >= Frame.GIF_MINIMUM_FRAME_DURATION) {
+                slots++;
+                millisCount -= Frame.GIF_MINIMUM_FRAME_DURATION;
+            }
+
+            if (slots > 0) {
+                slotCount += slots;
+                frameIndices[runCount] = i;
+                runEnds[runCount] = slotCount;
+                runCount++;
+            }
+        }
+
+        return new FrameTimeline(Arrays.copyOf(frameIndices, runCount), Arrays.copyOf(runEnds, runCount));
+    }
+
+    /**
+     * Gets a timeline that has at least one slot.
+     *
+     * @return This timeline if it isn't empty, otherwise a timeline
+     * showing the first frame for a single slot.
+     */
+    public FrameTimeline nonEmpty() {
+        if (isEmpty()) {
+            return new FrameTimeline(new int[]{0}, new int[]{1});
+        } else {
+            return this;
+        }
+    }
+
+    public int getSlotCount() {
+        return RUN_ENDS.length == 0 ? 0 : RUN_ENDS[RUN_ENDS.length - 1];
+    }
+
+    public boolean isEmpty() {
+        return RUN_ENDS.length == 0;
+    }
+
+    public int getRunCount() {
+        return RUN_ENDS.length;
+    }
+
+    public int getRunFrameIndex(int run) {
+        return FRAME_INDICES[run];
+    }
+
+    public int getRunSlotCount(int run) {
+        return run == 0 ? RUN_ENDS[0] : RUN_ENDS[run] - RUN_ENDS[run - 1];
+    }
+
+    /**
+     * Gets the index of the frame shown at a slot in O(log n) time,
+     * where n is the number of runs.
+     *
+     * @param slot The slot.
+     * @return The index of the frame shown at the slot.
+     */
+    public int frameAt(int slot) {
+        return FRAME_INDICES[runAt(slot)];
+    }
+
+    private int runAt(int slot) {
+        if (slot < 0 || slot >= getSlotCount()) {
+            throw new IndexOutOfBoundsException("Slot " + slot + " out of bounds for slot count " + getSlotCount());
+        } else {
+            int index = Arrays.binarySearch(RUN_ENDS, slot);
+            // The run ending at the slot is exclusive, so the slot is in the next run.
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+    }
+
+    /**
+     * Plays two timelines alongside each other, looping the shorter one until the
+     * longer one finishes. Each {@link Segment} returned is a stretch of slots where
+     * neither timeline changes frame, so the work done is proportional to the number
+     * of runs rather than the number of slots.
+     *
+     * @param timeline1 The first timeline.
+     * @param timeline2 The second timeline.
+     * @return An iterator over the segments of the combined timelines.
+     * Empty if either timeline is empty.
+     */
+    public static Iterator<Segment> merge(FrameTimeline timeline1, FrameTimeline timeline2) {
+        return new Iterator<>() {
+
+            private final int SLOT_COUNT = timeline1.isEmpty() || timeline2.isEmpty() ? 0 : Math.max(timeline1.getSlotCount(), timeline2.getSlotCount());
+            private int slot = 0;
+            private int run1 = 0;
+            private int run2 = 0;
+            private int remaining1 = SLOT_COUNT == 0 ? 0 : timeline1.getRunSlotCount(0);
+            private int remaining2 = SLOT_COUNT == 0 ? 0 : timeline2.getRunSlotCount(0);
+
+            @Override
+            public boolean hasNext() {
+                return slot < SLOT_COUNT;
+            }
+
+            @Override
+            public Segment next() {
+                if (hasNext()) {
+                    int slots = Math.min(Math.min(remaining1, remaining2), SLOT_COUNT - slot);
+                    Segment segment = new Segment(timeline1.getRunFrameIndex(run1), timeline2.getRunFrameIndex(run2), slots);
+
+                    slot += slots;
+                    remaining1 -= slots;
+                    remaining2 -= slots;
+                    if (remaining1 == 0) {
+                        run1 = (run1 + 1) % timeline1.getRunCount();
+                        remaining1 = timeline1.getRunSlotCount(run1);
+                    }
+                    if (remaining2 == 0) {
+                        run2 = (run2 + 1) % timeline2.getRunCount();
+                        remaining2 = timeline2.getRunSlotCount(run2);
+                    }
+
+                    return segment;
+                } else {
+                    throw new NoSuchElementException();
+                }
+            }
+        };
+    }
+
+    /**
+     * A stretch of slots during which two merged timelines each show a single frame.
+     *
+     * @param frameIndex1 The index of the frame shown by the first timeline.
+     * @param frameIndex2 The index of the frame shown by the second timeline.
+     * @param slotCount   The number of slots the stretch lasts for.
+     */
+    public record Segment(int frameIndex1, int frameIndex2, int slotCount) {
+
+        public int getDuration() {
+            return slotCount * Frame.GIF_MINIMUM_FRAME_DURATION;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import io.github.shaksternano.mediamanipulator.image.imagemedia.AnimatedImage;
 import io.github.shaksternano.mediamanipulator.image.imagemedia.ImageMedia;
 import io.github.shaksternano.mediamanipulator.image.imagemedia.StaticImage;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -13,18 +15,48 @@ public class ImageMediaBuilder {
 
     private final List<Frame> frames = new ArrayList<>();
 
+    /**
+     * Whether consecutive frames are merged when their pixels are the same,
+     * rather than only when they share the same image object.
+     */
+    private final boolean DEDUPLICATE_BY_CONTENT;
+
+    /**
+     * The pixel hash of the last frame, only used when deduplicating by content.
+     */
+    @Nullable
+    private Long lastImageHash;
+
+    public ImageMediaBuilder() {
+        this(false);
+    }
+
+    /**
+     * Creates a new {@code ImageMediaBuilder}.
+     *
+     * @param deduplicateByContent Whether to merge consecutive frames that have the same pixels,
+     *                             even if their images are different objects. This costs
+     *                             a hash of each added frame's pixels.
+     */
+    public ImageMediaBuilder(boolean deduplicateByContent) {
+        DEDUPLICATE_BY_CONTENT = deduplicateByContent;
+    }
+
     public ImageMediaBuilder add(Frame... frames) {
         for (Frame frame : frames) {
+            Long imageHash = DEDUPLICATE_BY_CONTENT ? ImageUtil.hashPixels(frame.getImage()) : null;
             if (this.frames.isEmpty()) {
                 this.frames.add(frame);
+                lastImageHash = imageHash;
             } else {
                 int lastIndex = this.frames.size() - 1;
                 Frame lastFrame = this.frames.get(lastIndex);
-                if (frame.getImage().equals(lastFrame.getImage())) {
+                if (sameImage(frame.getImage(), imageHash, lastFrame.getImage())) {
                     int newDuration = frame.getDuration() + lastFrame.getDuration();
-                    this.frames.set(lastIndex, frame.copyWithDuration(newDuration));
+                    this.frames.set(lastIndex, lastFrame.copyWithDuration(newDuration));
                 } else {
                     this.frames.add(frame);
+                    lastImageHash = imageHash;
                 }
             }
         }
@@ -32,12 +64,26 @@ public class ImageMediaBuilder {
         return this;
     }
 
+    private boolean sameImage(BufferedImage image, @Nullable Long imageHash, BufferedImage lastImage) {
+        if (image.equals(lastImage)) {
+            return true;
+        } else if (imageHash != null && imageHash.equals(lastImageHash)) {
+            return ImageUtil.samePixels(image, lastImage);
+        } else {
+            return false;
+        }
+    }
+
     public Frame getFrame(int index) {
         return frames.get(index);
     }
 
     public ImageMediaBuilder setFrame(int index, Frame frame) {
         frames.set(index, frame);
+        if (index == frames.size() - 1) {
+            lastImageHash = DEDUPLICATE_BY_CONTENT ? ImageUtil.hashPixels(frame.getImage()) : null;
+        }
+
         return this;
     }
 
@@ -99,29 +145,29 @@ public class ImageMediaBuilder {
     }
 
     public static ImageMedia fromBufferedImages(Collection<BufferedImage> images) {
+        return fromBufferedImages(images, false);
+    }
+
+    /**
+     * Creates an {@link ImageMedia} where each image is shown for 1 millisecond,
+     * with consecutive identical images merged into a single frame.
+     *
+     * @param images               The images.
+     * @param deduplicateByContent Whether images with the same pixels are treated as identical,
+     *                             rather than only images that are the same object.
+     * @return The created {@link ImageMedia}.
+     */
+    public static ImageMedia fromBufferedImages(Collection<BufferedImage> images, boolean deduplicateByContent) {
         if (images.size() == 1) {
             return new StaticImage(images.iterator().next());
         } else {
-            List<Frame> frames = new ArrayList<>();
+            ImageMediaBuilder builder = new ImageMediaBuilder(deduplicateByContent);
 
             for (BufferedImage image : images) {
-                if (frames.isEmpty()) {
-                    frames.add(new AwtFrame(image, 1));
-                } else {
-                    int previousIndex = frames.size() - 1;
-                    Frame previousFrame = frames.get(previousIndex);
-                    BufferedImage previousImage = previousFrame.getImage();
-
-                    if (image.equals(previousImage)) {
-                        int previousDuration = previousFrame.getDuration();
-                        frames.set(previousIndex, new AwtFrame(image, previousDuration + 1));
-                    } else {
-                        frames.add(new AwtFrame(image, 1));
-                    }
-                }
+                builder.add(new AwtFrame(image, 1));
             }
 
-            return new AnimatedImage(frames);
+            return new AnimatedImage(builder.frames);
         }
     }
 }
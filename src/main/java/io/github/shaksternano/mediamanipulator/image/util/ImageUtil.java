@@ -15,20 +15,26 @@ import java.awt.geom.Area;
 import java.awt.geom.GeneralPath;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorConvertOp;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
+import java.util.Optional;
 
 /**
  * Contains static methods for dealing with images.
  */
 public class ImageUtil {
 
+    private static final long XXHASH_PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long XXHASH_PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long XXHASH_PRIME_3 = 0x165667B19E3779F9L;
+    private static final long XXHASH_PRIME_5 = 0x27D4EB2F165667C5L;
+
     public static ImageMedia getImageResourceInRootPackage(String imageResourcePath) throws IOException {
         try (InputStream imageTypeInputStream = FileUtil.getResourceInRootPackage(imageResourcePath)) {
             String imageFormat = getImageFormat(imageTypeInputStream);
@@ -130,10 +136,9 @@ public class ImageUtil {
         return overlayImage(imageMedia1, imageMedia2, image1IsBackground, x2, y2, image2Clip, imageType, fill, expand).getFirstImage();
     }
 
-    @SuppressWarnings("UnusedAssignment")
     public static ImageMedia overlayImage(ImageMedia imageMedia1, ImageMedia imageMedia2, boolean image1IsBackground, int x2, int y2, @Nullable Shape image2Clip, @Nullable Integer imageType, @Nullable Color fill, boolean expand) {
-        List<BufferedImage> normalisedImage1 = new ArrayList<>(imageMedia1.toNormalisedImages());
-        List<BufferedImage> normalisedImage2 = new ArrayList<>(imageMedia2.toNormalisedImages());
+        FrameTimeline timeline1 = FrameTimeline.of(imageMedia1).nonEmpty();
+        FrameTimeline timeline2 = FrameTimeline.of(imageMedia2).nonEmpty();
 
         BufferedImage firstImage1 = imageMedia1.getFirstImage();
         BufferedImage firstImage2 = imageMedia2.getFirstImage();
@@ -146,14 +151,6 @@ public class ImageUtil {
 
         int type = imageType == null ? ImageUtil.getType(firstImage1) : imageType;
 
-        imageMedia1 = null;
-        imageMedia2 = null;
-
-        firstImage1.flush();
-        firstImage2.flush();
-        firstImage1 = null;
-        firstImage2 = null;
-
         int overlaidWidth;
         int overlaidHeight;
 
@@ -195,25 +192,19 @@ public class ImageUtil {
 
         ImageMediaBuilder builder = new ImageMediaBuilder();
 
-        BufferedImage previousImage1 = null;
-        BufferedImage previousImage2 = null;
+        int previousFrameIndex1 = -1;
+        int previousFrameIndex2 = -1;
 
-        int size = Math.max(normalisedImage1.size(), normalisedImage2.size());
-        for (int i = 0; i < size; i++) {
-            BufferedImage image1 = normalisedImage1.get(i % normalisedImage1.size());
-            BufferedImage image2 = normalisedImage2.get(i % normalisedImage2.size());
-
-            int remaining = size - i;
-            if (normalisedImage1.size() - remaining >= 0) {
-                normalisedImage1.set(i % normalisedImage1.size(), null);
-            }
-            if (normalisedImage2.size() - remaining >= 0) {
-                normalisedImage2.set(i % normalisedImage2.size(), null);
-            }
+        Iterator<FrameTimeline.Segment> segments = FrameTimeline.merge(timeline1, timeline2);
+        while (segments.hasNext()) {
+            FrameTimeline.Segment segment = segments.next();
 
-            if (image1.equals(previousImage1) && image2.equals(previousImage2)) {
-                builder.increaseLastFrameDuration(Frame.GIF_MINIMUM_FRAME_DURATION);
+            if (segment.frameIndex1() == previousFrameIndex1 && segment.frameIndex2() == previousFrameIndex2) {
+                builder.increaseLastFrameDuration(segment.getDuration());
             } else {
+                BufferedImage image1 = imageMedia1.getFrame(segment.frameIndex1()).getImage();
+                BufferedImage image2 = imageMedia2.getFrame(segment.frameIndex2()).getImage();
+
                 BufferedImage overlaidImage = new BufferedImage(overlaidWidth, overlaidHeight, type);
                 Graphics2D graphics = overlaidImage.createGraphics();
 
@@ -247,10 +238,10 @@ public class ImageUtil {
 
                 graphics.dispose();
 
-                builder.add(new AwtFrame(overlaidImage, Frame.GIF_MINIMUM_FRAME_DURATION));
+                builder.add(new AwtFrame(overlaidImage, segment.getDuration()));
 
-                previousImage1 = image1;
-                previousImage2 = image2;
+                previousFrameIndex1 = segment.frameIndex1();
+                previousFrameIndex2 = segment.frameIndex2();
             }
         }
 
@@ -380,6 +371,99 @@ public class ImageUtil {
                 "]";
     }
 
+    /**
+     * Gets the pixels of an image as ARGB integers. If the image is already stored
+     * as ARGB integers, the image's own pixel array is returned without copying.
+     *
+     * @param image The image to get the pixels of.
+     * @return The ARGB pixels of the image, row by row.
+     */
+    public static int[] getArgbPixels(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB && image.getRaster().getDataBuffer() instanceof DataBufferInt dataBuffer && dataBuffer.getNumBanks() == 1) {
+            int[] data = dataBuffer.getData();
+            if (data.length == image.getWidth() * image.getHeight()) {
+                return data;
+            }
+        }
+
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    /**
+     * Calculates a 64-bit hash of the pixels of an image, based on xxHash64.
+     * Images with the same dimensions and pixels have the same hash,
+     * even if they are different objects or of different types.
+     *
+     * @param image The image to hash.
+     * @return The hash of the image's pixels.
+     */
+    public static long hashPixels(BufferedImage image) {
+        return hashPixels(getArgbPixels(image), image.getWidth(), image.getHeight());
+    }
+
+    private static long hashPixels(int[] pixels, int width, int height) {
+        long hash = XXHASH_PRIME_5 + ((long) width << 32 | height);
+        for (int pixel : pixels) {
+            hash ^= (pixel & 0xFFFFFFFFL) * XXHASH_PRIME_1;
+            hash = Long.rotateLeft(hash, 23) * XXHASH_PRIME_2 + XXHASH_PRIME_3;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= XXHASH_PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= XXHASH_PRIME_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    /**
+     * Checks whether two images have the same dimensions and pixels.
+     *
+     * @param image1 The first image.
+     * @param image2 The second image.
+     * @return Whether the images look the same.
+     */
+    public static boolean samePixels(BufferedImage image1, BufferedImage image2) {
+        return image1 == image2 || (image1.getWidth() == image2.getWidth()
+                && image1.getHeight() == image2.getHeight()
+                && Arrays.equals(getArgbPixels(image1), getArgbPixels(image2)));
+    }
+
+    /**
+     * Finds the smallest rectangle that contains every pixel of an image that isn't fully transparent.
+     *
+     * @param image The image.
+     * @return An {@link Optional} describing the rectangle.
+     * The Optional will be empty if the image is fully transparent.
+     */
+    public static Optional<Rectangle> getNonTransparentBounds(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = getArgbPixels(image);
+
+        int minX = width;
+        int minY = height;
+        int maxX = -1;
+        int maxY = -1;
+        for (int y = 0; y < height; y++) {
+            int rowStart = y * width;
+            for (int x = 0; x < width; x++) {
+                if (!isTransparent(pixels[rowStart + x])) {
+                    minX = Math.min(minX, x);
+                    maxX = Math.max(maxX, x);
+                    minY = Math.min(minY, y);
+                    maxY = y;
+                }
+            }
+        }
+
+        if (maxX < 0) {
+            return Optional.empty();
+        } else {
+            return Optional.of(new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1));
+        }
+    }
+
     public static int getType(BufferedImage image) {
         int type = image.getType();
         return type < 1 || type > 13 ? BufferedImage.TYPE_INT_ARGB : type;
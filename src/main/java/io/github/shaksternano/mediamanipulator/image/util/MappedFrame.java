@@ -0,0 +1,123 @@
+package io.github.shaksternano.mediamanipulator.image.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.nio.IntBuffer;
+import java.util.Objects;
+
+/**
+ * A frame whose pixels are stored in a memory-mapped region of a {@link FrameSpillFile}.
+ * A new {@link BufferedImage} is created every time the image of the frame is requested,
+ * and is not kept by the frame afterwards.
+ */
+public class MappedFrame implements Frame {
+
+    private final FrameSpillFile SPILL_FILE;
+
+    /**
+     * The ARGB pixels of the frame.
+     */
+    @Nullable
+    private IntBuffer pixels;
+
+    private final int WIDTH;
+    private final int HEIGHT;
+
+    /**
+     * The amount of time the frame is shown for in milliseconds.
+     */
+    private final int DURATION;
+
+    MappedFrame(FrameSpillFile spillFile, IntBuffer pixels, int width, int height, int duration) {
+        SPILL_FILE = spillFile;
+        this.pixels = pixels;
+        WIDTH = width;
+        HEIGHT = height;
+        DURATION = Math.max(duration, 1);
+        SPILL_FILE.retain();
+    }
+
+    /**
+     * Reads the image of the frame from the mapped pixels.
+     *
+     * @return A new {@link BufferedImage} of type {@link BufferedImage#TYPE_INT_ARGB}.
+     */
+    @Override
+    public BufferedImage getImage() {
+        IntBuffer pixels = getPixels();
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        pixels.duplicate().rewind().get(data);
+        return image;
+    }
+
+    @Override
+    public int getDuration() {
+        return DURATION;
+    }
+
+    /**
+     * Releases this frame's mapping. The underlying spill file is
+     * deleted once all the frames stored in it have been flushed.
+     */
+    @Override
+    public synchronized void flush() {
+        if (pixels != null) {
+            pixels = null;
+            SPILL_FILE.release();
+        }
+    }
+
+    @Override
+    public synchronized Frame copyWithDuration(int duration) {
+        return new MappedFrame(SPILL_FILE, getPixels().duplicate(), WIDTH, HEIGHT, duration);
+    }
+
+    private synchronized IntBuffer getPixels() {
+        if (pixels == null) {
+            throw new IllegalStateException();
+        } else {
+            return pixels;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(WIDTH, HEIGHT, DURATION);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        } else if (obj instanceof MappedFrame other) {
+            return WIDTH == other.WIDTH
+                    && HEIGHT == other.HEIGHT
+                    && DURATION == other.DURATION
+                    && Objects.equals(pixels, other.pixels);
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(getClass().getSimpleName() + "[");
+
+        if (pixels == null) {
+            builder.append("Flushed");
+        } else {
+            builder.append("Width: ")
+                    .append(WIDTH)
+                    .append(", Height: ")
+                    .append(HEIGHT)
+                    .append(", Duration:")
+                    .append(DURATION);
+        }
+
+        builder.append("]");
+        return builder.toString();
+    }
+}
@@ -1,14 +1,32 @@
 package io.github.shaksternano.mediamanipulator.image.writer;
 
+import com.google.common.collect.ImmutableList;
 import io.github.shaksternano.mediamanipulator.image.imagemedia.ImageMedia;
+import io.github.shaksternano.mediamanipulator.image.util.Frame;
+import io.github.shaksternano.mediamanipulator.image.util.ImageMediaBuilder;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.Set;
 
 public interface ImageWriter {
 
     void write(ImageMedia image, File file, String format) throws IOException;
 
+    /**
+     * Writes frames as they are produced. Writers that can encode frames
+     * one at a time should override this so that all the frames don't
+     * have to be held in memory at once.
+     *
+     * @param frames The frames to write. Must contain at least one frame.
+     * @param file   The file to write to.
+     * @param format The image format to write.
+     * @throws IOException If an error occurs while writing.
+     */
+    default void write(Iterator<Frame> frames, File file, String format) throws IOException {
+        write(ImageMediaBuilder.fromCollection(ImmutableList.copyOf(frames)), file, format);
+    }
+
     Set<String> getSupportedFormats();
 }
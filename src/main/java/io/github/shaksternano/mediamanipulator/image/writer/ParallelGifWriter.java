@@ -0,0 +1,362 @@
+package io.github.shaksternano.mediamanipulator.image.writer;
+
+import com.google.common.collect.ImmutableSet;
+import io.github.shaksternano.mediamanipulator.command.util.CommandScheduler;
+import io.github.shaksternano.mediamanipulator.image.imagemedia.ImageMedia;
+import io.github.shaksternano.mediamanipulator.image.util.Frame;
+import io.github.shaksternano.mediamanipulator.image.util.ImageUtil;
+import io.github.shaksternano.mediamanipulator.util.CollectionUtil;
+import org.jetbrains.annotations.Nullable;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.*;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Writes GIF files, quantising and LZW compressing frames on multiple threads.
+ * Each frame is encoded on its own as a single image GIF by the Java image I/O GIF writer,
+ * then the image data of each encoded frame is copied in order into the animated GIF.
+ * Where possible, only the area of a frame that changed from the previous frame is written,
+ * with unchanged pixels inside that area made transparent.
+ */
+public class ParallelGifWriter implements ImageWriter {
+
+    private static final int EXTENSION_INTRODUCER = 0x21;
+    private static final int GRAPHIC_CONTROL_LABEL = 0xF9;
+    private static final int APPLICATION_EXTENSION_LABEL = 0xFF;
+    private static final int IMAGE_SEPARATOR = 0x2C;
+    private static final int TRAILER = 0x3B;
+
+    /**
+     * The disposal method that leaves the frame in place for the next frame to be drawn over.
+     */
+    private static final int DISPOSAL_DO_NOT_DISPOSE = 1;
+
+    /**
+     * The disposal method that restores the area of the frame to the background colour.
+     */
+    private static final int DISPOSAL_RESTORE_TO_BACKGROUND = 2;
+
+    @Override
+    public void write(ImageMedia image, File file, String format) throws IOException {
+        write(image.iterator(), file, format);
+    }
+
+    @Override
+    public void write(Iterator<Frame> frames, File file, String format) throws IOException {
+        Iterator<EncodedFrame> encodedFrames = CollectionUtil.parallelMapOrdered(new DeltaFrameIterator(frames), frame -> {
+            try {
+                return encode(frame);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, Runtime.getRuntime().availableProcessors(), CommandScheduler.getCpuExecutor());
+
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file))) {
+            EncodedFrame firstFrame = encodedFrames.next();
+            boolean animated = encodedFrames.hasNext();
+
+            writeHeader(outputStream, firstFrame.width(), firstFrame.height(), animated);
+            writeFrame(outputStream, firstFrame, animated);
+            while (encodedFrames.hasNext()) {
+                writeFrame(outputStream, encodedFrames.next(), true);
+            }
+
+            outputStream.write(TRAILER);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeHeader(OutputStream outputStream, int width, int height, boolean animated) throws IOException {
+        outputStream.write("GIF89a".getBytes());
+
+        // Logical screen descriptor, without a global colour table.
+        writeShort(outputStream, width);
+        writeShort(outputStream, height);
+        outputStream.write(0);
+        outputStream.write(0);
+        outputStream.write(0);
+
+        if (animated) {
+            // Netscape looping extension, looping forever.
+            outputStream.write(EXTENSION_INTRODUCER);
+            outputStream.write(APPLICATION_EXTENSION_LABEL);
+            outputStream.write(11);
+            outputStream.write("NETSCAPE2.0".getBytes());
+            outputStream.write(3);
+            outputStream.write(1);
+            writeShort(outputStream, 0);
+            outputStream.write(0);
+        }
+    }
+
+    private static void writeFrame(OutputStream outputStream, EncodedFrame frame, boolean animated) throws IOException {
+        if (animated || frame.transparentIndex() >= 0) {
+            int packed = animated ? frame.disposal() << 2 : 0;
+            if (frame.transparentIndex() >= 0) {
+                packed |= 1;
+            }
+
+            outputStream.write(EXTENSION_INTRODUCER);
+            outputStream.write(GRAPHIC_CONTROL_LABEL);
+            outputStream.write(4);
+            outputStream.write(packed);
+            writeShort(outputStream, animated ? frame.duration() / 10 : 0);
+            outputStream.write(Math.max(frame.transparentIndex(), 0));
+            outputStream.write(0);
+        }
+
+        outputStream.write(frame.imageData());
+    }
+
+    private static void writeShort(OutputStream outputStream, int value) throws IOException {
+        outputStream.write(value & 0xFF);
+        outputStream.write((value >> 8) & 0xFF);
+    }
+
+    /**
+     * Encodes a single image as a GIF, then extracts its image descriptor,
+     * colour table and LZW compressed data.
+     *
+     * @param frame The frame to encode.
+     * @return The encoded frame.
+     * @throws IOException If an error occurs while encoding the image.
+     */
+    private static EncodedFrame encode(DeltaFrame frame) throws IOException {
+        BufferedImage image = frame.image();
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, "gif", byteStream)) {
+            throw new IOException("No GIF writer available!");
+        }
+
+        byte[] gif = byteStream.toByteArray();
+
+        int logicalScreenPacked = gif[10] & 0xFF;
+        int position = 13;
+        byte[] globalColorTable = null;
+        int globalColorTableSizeBits = 0;
+        if ((logicalScreenPacked & 0x80) != 0) {
+            globalColorTableSizeBits = logicalScreenPacked & 0x07;
+            int globalColorTableLength = 3 * (1 << (globalColorTableSizeBits + 1));
+            globalColorTable = Arrays.copyOfRange(gif, position, position + globalColorTableLength);
+            position += globalColorTableLength;
+        }
+
+        int transparentIndex = -1;
+        while (position < gif.length) {
+            int blockType = gif[position] & 0xFF;
+            if (blockType == EXTENSION_INTRODUCER) {
+                int label = gif[position + 1] & 0xFF;
+                if (label == GRAPHIC_CONTROL_LABEL && (gif[position + 3] & 0x01) != 0) {
+                    transparentIndex = gif[position + 6] & 0xFF;
+                }
+
+                position = skipSubBlocks(gif, position + 2);
+            } else if (blockType == IMAGE_SEPARATOR) {
+                int descriptorEnd = position + 10;
+                int imagePacked = gif[position + 9] & 0xFF;
+                int dataEnd = (imagePacked & 0x80) == 0
+                        ? skipSubBlocks(gif, descriptorEnd + 1)
+                        : skipSubBlocks(gif, descriptorEnd + 3 * (1 << ((imagePacked & 0x07) + 1)) + 1);
+
+                // Position the image within the canvas.
+                gif[position + 1] = (byte) frame.x();
+                gif[position + 2] = (byte) (frame.x() >> 8);
+                gif[position + 3] = (byte) frame.y();
+                gif[position + 4] = (byte) (frame.y() >> 8);
+
+                ByteArrayOutputStream imageData = new ByteArrayOutputStream(dataEnd - position + (globalColorTable == null ? 0 : globalColorTable.length));
+                if ((imagePacked & 0x80) == 0 && globalColorTable != null) {
+                    // Move the global colour table into a local colour table, as each frame has its own palette.
+                    imageData.write(gif, position, 9);
+                    imageData.write((imagePacked & 0x78) | 0x80 | globalColorTableSizeBits);
+                    imageData.write(globalColorTable);
+                    imageData.write(gif, descriptorEnd, dataEnd - descriptorEnd);
+                } else {
+                    imageData.write(gif, position, dataEnd - position);
+                }
+
+                return new EncodedFrame(imageData.toByteArray(), image.getWidth(), image.getHeight(), frame.duration(), frame.disposal(), transparentIndex);
+            } else {
+                break;
+            }
+        }
+
+        throw new IOException("Could not find image data in encoded GIF frame!");
+    }
+
+    /**
+     * Skips a sequence of GIF data sub-blocks.
+     *
+     * @param gif      The GIF data.
+     * @param position The position of the first sub-block's size byte.
+     * @return The position after the block terminator.
+     */
+    private static int skipSubBlocks(byte[] gif, int position) {
+        int blockSize;
+        do {
+            blockSize = gif[position] & 0xFF;
+            position += blockSize + 1;
+        } while (blockSize > 0 && position < gif.length);
+        return position;
+    }
+
+    @Override
+    public Set<String> getSupportedFormats() {
+        return ImmutableSet.of(
+                "gif"
+        );
+    }
+
+    private record DeltaFrame(BufferedImage image, int x, int y, int duration, int disposal) {
+    }
+
+    private record EncodedFrame(byte[] imageData, int width, int height, int duration, int disposal, int transparentIndex) {
+    }
+
+    /**
+     * Turns frames into the sub-frames to write. Consecutive frames that look the same are
+     * written once, with their durations added together. A frame is drawn over the previous frame
+     * when the previous frame can be left in place, in which case only the bounding
+     * rectangle of the changed pixels is written. If a frame makes a pixel that was
+     * previously drawn more transparent, the previous frame is written in full and
+     * cleared afterwards instead, so the frame is drawn onto an empty canvas.
+     */
+    private static class DeltaFrameIterator implements Iterator<DeltaFrame> {
+
+        private final Iterator<Frame> FRAMES;
+
+        @Nullable
+        private PendingFrame pending;
+        private boolean firstFrameOpaque;
+
+        private DeltaFrameIterator(Iterator<Frame> frames) {
+            FRAMES = frames;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pending != null || FRAMES.hasNext();
+        }
+
+        @Override
+        public DeltaFrame next() {
+            if (pending == null) {
+                pending = readFrame(null, true);
+                firstFrameOpaque = isOpaque(pending.pixels());
+            }
+
+            PendingFrame current = pending;
+            PendingFrame next = FRAMES.hasNext() ? readFrame(current, false) : null;
+
+            // A frame that looks the same as the current frame only extends its duration.
+            while (next != null && samePixels(current, next)) {
+                current = new PendingFrame(current.image(), current.pixels(), current.previousPixels(), current.duration() + next.duration(), current.drawnOnClearCanvas());
+                next = FRAMES.hasNext() ? readFrame(current, false) : null;
+            }
+
+            // When looping back to the first frame, the canvas must be cleared if the first frame isn't opaque.
+            boolean clearAfter = next == null ? !firstFrameOpaque : requiresClear(current, next);
+
+            DeltaFrame deltaFrame;
+            if (clearAfter) {
+                deltaFrame = new DeltaFrame(current.image(), 0, 0, current.duration(), DISPOSAL_RESTORE_TO_BACKGROUND);
+            } else if (current.drawnOnClearCanvas() || current.previousPixels() == null) {
+                deltaFrame = new DeltaFrame(current.image(), 0, 0, current.duration(), DISPOSAL_DO_NOT_DISPOSE);
+            } else {
+                deltaFrame = createDeltaFrame(current);
+            }
+
+            pending = next == null ? null : new PendingFrame(next.image(), next.pixels(), next.previousPixels(), next.duration(), clearAfter);
+            return deltaFrame;
+        }
+
+        private PendingFrame readFrame(@Nullable PendingFrame previous, boolean drawnOnClearCanvas) {
+            Frame frame = FRAMES.next();
+            BufferedImage image = frame.getImage();
+            int[] pixels = ImageUtil.getArgbPixels(image);
+            return new PendingFrame(image, pixels, previous == null ? null : previous.pixels(), frame.getDuration(), drawnOnClearCanvas);
+        }
+
+        private static boolean samePixels(PendingFrame current, PendingFrame next) {
+            return current.image().getWidth() == next.image().getWidth()
+                    && current.image().getHeight() == next.image().getHeight()
+                    && Arrays.equals(current.pixels(), next.pixels());
+        }
+
+        private static boolean requiresClear(PendingFrame current, PendingFrame next) {
+            if (current.image().getWidth() != next.image().getWidth() || current.image().getHeight() != next.image().getHeight()) {
+                return true;
+            } else {
+                int[] currentPixels = current.pixels();
+                int[] nextPixels = next.pixels();
+                for (int i = 0; i < nextPixels.length; i++) {
+                    if (nextPixels[i] != currentPixels[i] && nextPixels[i] >>> 24 != 0xFF) {
+                        return true;
+                    }
+                }
+
+                return false;
+            }
+        }
+
+        private static boolean isOpaque(int[] pixels) {
+            for (int pixel : pixels) {
+                if (pixel >>> 24 != 0xFF) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private static DeltaFrame createDeltaFrame(PendingFrame frame) {
+            int width = frame.image().getWidth();
+            int height = frame.image().getHeight();
+            int[] pixels = frame.pixels();
+            int[] previousPixels = Objects.requireNonNull(frame.previousPixels());
+
+            int minX = width;
+            int minY = height;
+            int maxX = -1;
+            int maxY = -1;
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int i = y * width + x;
+                    if (pixels[i] != previousPixels[i]) {
+                        minX = Math.min(minX, x);
+                        minY = Math.min(minY, y);
+                        maxX = Math.max(maxX, x);
+                        maxY = Math.max(maxY, y);
+                    }
+                }
+            }
+
+            // Frames that look the same as the previous frame are merged into it, so at least one pixel changed.
+            int deltaWidth = maxX - minX + 1;
+            int deltaHeight = maxY - minY + 1;
+            BufferedImage delta = new BufferedImage(deltaWidth, deltaHeight, BufferedImage.TYPE_INT_ARGB);
+            int[] deltaPixels = ((DataBufferInt) delta.getRaster().getDataBuffer()).getData();
+            for (int y = 0; y < deltaHeight; y++) {
+                for (int x = 0; x < deltaWidth; x++) {
+                    int i = (minY + y) * width + minX + x;
+                    // Unchanged pixels are left transparent.
+                    if (pixels[i] != previousPixels[i]) {
+                        deltaPixels[y * deltaWidth + x] = pixels[i];
+                    }
+                }
+            }
+
+            return new DeltaFrame(delta, minX, minY, frame.duration(), DISPOSAL_DO_NOT_DISPOSE);
+        }
+
+        private record PendingFrame(BufferedImage image, int[] pixels, @Nullable int[] previousPixels, int duration, boolean drawnOnClearCanvas) {
+        }
+    }
+}
@@ -12,18 +12,25 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.Iterator;
 import java.util.Set;
 
 public class ScrimageAnimatedGifWriter implements ImageWriter {
 
     @Override
     public void write(ImageMedia image, File file, String format) throws IOException {
-        if (image.isAnimated()) {
+        write(image.iterator(), file, format);
+    }
+
+    @Override
+    public void write(Iterator<Frame> frames, File file, String format) throws IOException {
+        Frame firstFrame = frames.next();
+        if (frames.hasNext()) {
             StreamingGifWriter writer = new StreamingGifWriter();
             try (StreamingGifWriter.GifStream gif = writer.prepareStream(file, BufferedImage.TYPE_INT_ARGB)) {
-                for (Frame frame : image) {
-                    ImmutableImage immutableImage = ImmutableImage.wrapAwt(frame.getImage());
-                    gif.writeFrame(immutableImage, Duration.ofMillis(frame.getDuration()), DisposeMethod.RESTORE_TO_BACKGROUND_COLOR);
+                writeFrame(gif, firstFrame);
+                while (frames.hasNext()) {
+                    writeFrame(gif, frames.next());
                 }
             } catch (IOException e) {
                 throw e;
@@ -31,11 +38,16 @@ public class ScrimageAnimatedGifWriter implements ImageWriter {
                 throw new IOException(e);
             }
         } else {
-            ImmutableImage immutableImage = ImmutableImage.wrapAwt(image.getFirstImage());
+            ImmutableImage immutableImage = ImmutableImage.wrapAwt(firstFrame.getImage());
             immutableImage.output(GifWriter.Default, file);
         }
     }
 
+    private static void writeFrame(StreamingGifWriter.GifStream gif, Frame frame) throws IOException {
+        ImmutableImage immutableImage = ImmutableImage.wrapAwt(frame.getImage());
+        gif.writeFrame(immutableImage, Duration.ofMillis(frame.getDuration()), DisposeMethod.RESTORE_TO_BACKGROUND_COLOR);
+    }
+
     @Override
     public Set<String> getSupportedFormats() {
         return ImmutableSet.of(
@@ -2,17 +2,21 @@ package io.github.shaksternano.mediamanipulator.image.writer.util;
 
 import io.github.shaksternano.mediamanipulator.Main;
 import io.github.shaksternano.mediamanipulator.image.imagemedia.ImageMedia;
+import io.github.shaksternano.mediamanipulator.image.util.Frame;
 import io.github.shaksternano.mediamanipulator.image.writer.ImageWriter;
 import io.github.shaksternano.mediamanipulator.image.writer.JavaxImageWriter;
+import io.github.shaksternano.mediamanipulator.image.writer.ParallelGifWriter;
 import io.github.shaksternano.mediamanipulator.image.writer.ScrimageAnimatedGifWriter;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 
 public class ImageWriters {
 
     public static void registerImageWriters() {
+        ImageWriterRegistry.register(new ParallelGifWriter());
         ImageWriterRegistry.register(new ScrimageAnimatedGifWriter());
         ImageWriterRegistry.register(new JavaxImageWriter());
     }
@@ -38,4 +42,27 @@ public class ImageWriters {
             }
         }
     }
+
+    /**
+     * Writes frames as they are produced. As the frames can only be
+     * iterated over once, only the first registered writer for the
+     * format is used, with no fallback to the other writers.
+     *
+     * @param frames The frames to write.
+     * @param file   The file to write to.
+     * @param format The image format to write.
+     * @throws IOException If an error occurs while writing.
+     */
+    public static void write(Iterator<Frame> frames, File file, String format) throws IOException {
+        if (!frames.hasNext()) {
+            throw new IllegalArgumentException("No frames to write!");
+        } else {
+            List<ImageWriter> writers = ImageWriterRegistry.getWriters(format);
+            if (writers.isEmpty()) {
+                throw new IOException("No image writers found for format: " + format + "!");
+            } else {
+                writers.get(0).write(frames, file, format);
+            }
+        }
+    }
 }
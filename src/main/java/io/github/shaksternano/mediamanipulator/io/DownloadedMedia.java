@@ -0,0 +1,137 @@
+package io.github.shaksternano.mediamanipulator.io;
+
+import com.google.common.hash.Hashing;
+import io.github.shaksternano.mediamanipulator.Main;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Media downloaded by {@link MediaDownloader}. Media small enough to be kept in memory is only
+ * written to its file when {@link #getFile()} is first called, so its format and hash are worked out
+ * from the downloaded bytes, and media that is never needed as a file is never written to disk.
+ */
+public class DownloadedMedia {
+
+    private final File FILE;
+    @Nullable
+    private final byte[] BYTES;
+    @Nullable
+    private Consumer<File> writeListener;
+    private boolean written;
+    @Nullable
+    private String hash;
+
+    private DownloadedMedia(File file, @Nullable byte[] bytes) {
+        FILE = file;
+        BYTES = bytes;
+        written = bytes == null;
+    }
+
+    /**
+     * Creates a {@code DownloadedMedia} for media that has already been written to a file.
+     *
+     * @param file The file containing the media.
+     * @return The downloaded media.
+     */
+    public static DownloadedMedia ofFile(File file) {
+        return new DownloadedMedia(file, null);
+    }
+
+    /**
+     * Creates a {@code DownloadedMedia} for media held in memory.
+     *
+     * @param bytes The media.
+     * @param file  The file to write the media to if it's needed as a file.
+     * @return The downloaded media.
+     */
+    public static DownloadedMedia ofBytes(byte[] bytes, File file) {
+        return new DownloadedMedia(file, bytes);
+    }
+
+    /**
+     * Gets the file containing the media, writing the media to it first if it's held in memory.
+     *
+     * @return The file containing the media.
+     * @throws IOException If an error occurs while writing the file.
+     */
+    public synchronized File getFile() throws IOException {
+        if (!written && BYTES != null) {
+            com.google.common.io.Files.write(BYTES, FILE);
+            written = true;
+            if (writeListener != null) {
+                writeListener.accept(FILE);
+            }
+        }
+
+        return FILE;
+    }
+
+    /**
+     * Gets whether the media is held in memory rather than only in a file.
+     *
+     * @return Whether the media is held in memory.
+     */
+    public boolean isInMemory() {
+        return BYTES != null;
+    }
+
+    /**
+     * Gets the format of the media. Media held in memory is identified from its first bytes
+     * using {@link MediaSniffer}, otherwise {@link FileUtil#getFileFormat(File)} is used.
+     *
+     * @return The format of the media.
+     */
+    public String getFormat() {
+        if (BYTES != null) {
+            Optional<String> sniffedFormatOptional = MediaSniffer.sniffFormat(BYTES, BYTES.length);
+            if (sniffedFormatOptional.isPresent()) {
+                return sniffedFormatOptional.orElseThrow();
+            }
+        }
+
+        try {
+            return FileUtil.getFileFormat(getFile());
+        } catch (IOException e) {
+            Main.getLogger().error("Error writing file " + FILE + "!", e);
+            return com.google.common.io.Files.getFileExtension(FILE.getName());
+        }
+    }
+
+    /**
+     * Gets the SHA-256 hash of the media.
+     *
+     * @return The hash of the media.
+     * @throws IOException If an error occurs while reading the file containing the media.
+     */
+    public synchronized String getHash() throws IOException {
+        if (hash == null) {
+            hash = BYTES == null
+                    ? com.google.common.io.Files.asByteSource(FILE).hash(Hashing.sha256()).toString()
+                    : Hashing.sha256().hashBytes(BYTES).toString();
+        }
+
+        return hash;
+    }
+
+    /**
+     * Sets a listener that is called with the file once media held in memory has been written to it.
+     * The listener isn't called for media that was downloaded straight to a file.
+     *
+     * @param writeListener The listener.
+     */
+    public synchronized void setWriteListener(Consumer<File> writeListener) {
+        this.writeListener = writeListener;
+    }
+
+    /**
+     * Deletes the file containing the media, if it has been written.
+     */
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    public void delete() {
+        FILE.delete();
+    }
+}
@@ -0,0 +1,155 @@
+package io.github.shaksternano.mediamanipulator.io;
+
+import com.google.common.hash.Hashing;
+import io.github.shaksternano.mediamanipulator.Main;
+import org.apache.commons.io.FileUtils;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A size bounded, least recently used cache of files, stored in the program's temporary directory.
+ * Files are copied into and out of the cache, hard linking them where possible,
+ * so callers keep ownership of the files they pass in and get back.
+ */
+public class FileLruCache {
+
+    private final String NAME;
+    private final long MAXIMUM_SIZE;
+    @Nullable
+    private final Consumer<String> EVICTION_LISTENER;
+    private final Map<String, CachedFile> ENTRIES = new LinkedHashMap<>(16, 0.75F, true);
+    private final AtomicLong HITS = new AtomicLong();
+    private final AtomicLong MISSES = new AtomicLong();
+    private long totalSize = 0;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param name             The name of the cache's directory.
+     * @param maximumSize      The maximum total size of the cached files in bytes.
+     * @param evictionListener Called with the key of each entry that is evicted. Can be null.
+     */
+    public FileLruCache(String name, long maximumSize, @Nullable Consumer<String> evictionListener) {
+        NAME = name;
+        MAXIMUM_SIZE = maximumSize;
+        EVICTION_LISTENER = evictionListener;
+    }
+
+    /**
+     * Gets a file from the cache.
+     *
+     * @param key         The key of the file.
+     * @param destination Where to put the cached file. If null, a unique temporary
+     *                    file with the same name as the file that was cached is used.
+     * @return An {@link Optional} describing the destination file, which the caller owns.
+     * The optional will be empty if the key is not cached.
+     * @throws IOException If an error occurs while copying the cached file.
+     */
+    public synchronized Optional<File> get(String key, @Nullable File destination) throws IOException {
+        CachedFile cached = ENTRIES.get(key);
+        if (cached == null || !cached.file().isFile()) {
+            MISSES.incrementAndGet();
+            return Optional.empty();
+        } else {
+            HITS.incrementAndGet();
+            File output = destination == null ? FileUtil.getUniqueTempFile(cached.file().getName()) : destination;
+            linkOrCopy(cached.file(), output);
+            return Optional.of(output);
+        }
+    }
+
+    /**
+     * Checks whether a key is cached, without counting a hit or miss.
+     *
+     * @param key The key.
+     * @return Whether the key is cached.
+     */
+    public synchronized boolean contains(String key) {
+        return ENTRIES.containsKey(key);
+    }
+
+    /**
+     * Adds a file to the cache, replacing any file already cached under the same key,
+     * then evicts the least recently used files until the cache is within its maximum size.
+     *
+     * @param key  The key of the file.
+     * @param file The file to cache. The caller keeps ownership of this file.
+     * @throws IOException If an error occurs while copying the file.
+     */
+    public synchronized void put(String key, File file) throws IOException {
+        remove(key);
+        File entryDirectory = new File(new File(FileUtil.getTempDir(), NAME), Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString());
+        if (!entryDirectory.isDirectory() && !entryDirectory.mkdirs()) {
+            throw new IOException("Failed to create cache directory " + entryDirectory + "!");
+        }
+
+        File cacheFile = new File(entryDirectory, file.getName());
+        linkOrCopy(file, cacheFile);
+        CachedFile cached = new CachedFile(cacheFile, cacheFile.length());
+        ENTRIES.put(key, cached);
+        totalSize += cached.size();
+        evict();
+    }
+
+    public long getHits() {
+        return HITS.get();
+    }
+
+    public long getMisses() {
+        return MISSES.get();
+    }
+
+    private void remove(String key) {
+        CachedFile removed = ENTRIES.remove(key);
+        if (removed != null) {
+            totalSize -= removed.size();
+            delete(removed);
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, CachedFile>> iterator = ENTRIES.entrySet().iterator();
+        while (totalSize > MAXIMUM_SIZE && iterator.hasNext()) {
+            Map.Entry<String, CachedFile> evicted = iterator.next();
+            iterator.remove();
+            totalSize -= evicted.getValue().size();
+            delete(evicted.getValue());
+            if (EVICTION_LISTENER != null) {
+                EVICTION_LISTENER.accept(evicted.getKey());
+            }
+        }
+    }
+
+    private static void delete(CachedFile cached) {
+        File entryDirectory = cached.file().getParentFile();
+        if (!FileUtils.deleteQuietly(entryDirectory)) {
+            Main.getLogger().warn("Failed to delete cached file " + cached.file() + "!");
+        }
+    }
+
+    /**
+     * Hard links a file to a new location, falling back to copying it if linking isn't supported.
+     */
+    private static void linkOrCopy(File source, File destination) throws IOException {
+        Files.deleteIfExists(destination.toPath());
+        try {
+            Files.createLink(destination.toPath(), source.toPath());
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(source.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private record CachedFile(File file, long size) {
+    }
+}
@@ -3,6 +3,8 @@ package io.github.shaksternano.mediamanipulator.io;
 import io.github.shaksternano.mediamanipulator.Main;
 import io.github.shaksternano.mediamanipulator.image.backgroundimage.ResourceContainerImageInfo;
 import io.github.shaksternano.mediamanipulator.image.util.ImageUtil;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.MediaManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.util.MediaManipulatorRegistry;
 import io.github.shaksternano.mediamanipulator.util.tenor.TenorMediaType;
 import io.github.shaksternano.mediamanipulator.util.tenor.TenorUtil;
 import org.apache.commons.io.FileUtils;
@@ -11,12 +13,10 @@ import org.reflections.Reflections;
 import org.reflections.scanners.Scanners;
 
 import java.io.*;
-import java.net.URL;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
 
@@ -33,6 +33,11 @@ public class FileUtil {
      */
     private static final long MAXIMUM_FILE_SIZE_TO_DOWNLOAD = 104857600;
 
+    /**
+     * The maximum size of downloaded media that is kept in memory instead of being written to a file, 8MB.
+     */
+    private static final long MAXIMUM_IN_MEMORY_SIZE = 8388608;
+
     private static File createTempDir() throws IOException {
         File tempDir = Files.createTempDirectory("mediamanipulator").toFile();
         tempDir.deleteOnExit();
@@ -153,6 +158,25 @@ public class FileUtil {
      * @return An {@link Optional} describing the image file.
      */
     public static Optional<File> downloadFile(String url, String directory) {
+        try {
+            Optional<DownloadedMedia> mediaOptional = downloadMedia(url, directory);
+            if (mediaOptional.isPresent()) {
+                return Optional.of(mediaOptional.orElseThrow().getFile());
+            }
+        } catch (IOException ignored) {
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Downloads media from a URL, keeping it in memory if it's small enough.
+     *
+     * @param url       The text to download the media from.
+     * @param directory The directory of the file that the media is downloaded to, or written to when it's needed as a file.
+     * @return An {@link Optional} describing the media.
+     */
+    public static Optional<DownloadedMedia> downloadMedia(String url, String directory) {
         try {
             Optional<String> tenorMediaUrlOptional = TenorUtil.getTenorMediaUrl(url, TenorMediaType.GIF_SMALL, Main.getTenorApiKey());
             url = tenorMediaUrlOptional.orElse(url);
@@ -170,8 +194,7 @@ public class FileUtil {
             }
 
             File imageFile = getUniqueFile(directory, fileName);
-            downloadFile(url, imageFile);
-            return Optional.of(imageFile);
+            return Optional.of(downloadMedia(url, imageFile));
         } catch (IOException ignored) {
         }
 
@@ -179,22 +202,70 @@ public class FileUtil {
     }
 
     /**
-     * Downloads a file from a web URL.
+     * Downloads a file from a web URL using {@link MediaDownloader}, waiting for the download to finish.
+     * Recently downloaded media is taken from {@link MediaCache} instead.
+     * Media in a format that no {@link MediaManipulator} supports is rejected before its body is downloaded.
      *
      * @param url  The URL to download the file from.
      * @param file The file to download to.
      * @throws IOException If there was an error occurred while downloading the file.
      */
     public static void downloadFile(String url, File file) throws IOException {
-        try (
-                FileOutputStream outputStream = new FileOutputStream(file);
-                ReadableByteChannel readableByteChannel = Channels.newChannel(new URL(url).openStream())
-        ) {
-            outputStream.getChannel().transferFrom(readableByteChannel, 0, MAXIMUM_FILE_SIZE_TO_DOWNLOAD);
-        }
+        downloadMedia(url, file).getFile();
+    }
+
+    /**
+     * Downloads media from a web URL using {@link MediaDownloader}, waiting for the download to finish.
+     * Media no larger than {@link #MAXIMUM_IN_MEMORY_SIZE} is kept in memory, and is only written
+     * to the file when {@link DownloadedMedia#getFile()} is called.
+     * Recently downloaded media is taken from {@link MediaCache} instead.
+     * Media in a format that no {@link MediaManipulator} supports is rejected before its body is downloaded.
+     *
+     * @param url  The URL to download the media from.
+     * @param file The file to download the media to.
+     * @return The media.
+     * @throws IOException If there was an error occurred while downloading the media.
+     */
+    public static DownloadedMedia downloadMedia(String url, File file) throws IOException {
+        return MediaCache.download(url, file, () -> {
+            try {
+                return MediaDownloader.download(url, file, MAXIMUM_FILE_SIZE_TO_DOWNLOAD, MAXIMUM_IN_MEMORY_SIZE, FileUtil::isSupportedFormat).get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException ioException) {
+                    throw ioException;
+                } else {
+                    throw new IOException("Error downloading " + url + "!", cause);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while downloading " + url + "!");
+            }
+        });
+    }
+
+    private static boolean isSupportedFormat(String format) {
+        return MediaManipulatorRegistry.getManipulator(format).isPresent();
     }
 
+    /**
+     * Gets the format of a file. The format is identified from the first few bytes of the file using
+     * {@link MediaSniffer}, falling back to asking ImageIO, and then to the file's extension.
+     *
+     * @param file The file.
+     * @return The format of the file.
+     */
     public static String getFileFormat(File file) {
+        try (InputStream inputStream = new FileInputStream(file)) {
+            byte[] magicBytes = inputStream.readNBytes(MediaSniffer.MAGIC_BYTES_LENGTH);
+            Optional<String> sniffedFormatOptional = MediaSniffer.sniffFormat(magicBytes, magicBytes.length);
+            if (sniffedFormatOptional.isPresent()) {
+                return sniffedFormatOptional.orElseThrow();
+            }
+        } catch (IOException e) {
+            Main.getLogger().error("Error reading file " + file + "!", e);
+        }
+
         Optional<String> fileFormatOptional = Optional.empty();
 
         try {
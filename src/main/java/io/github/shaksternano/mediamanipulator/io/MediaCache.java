@@ -0,0 +1,124 @@
+package io.github.shaksternano.mediamanipulator.io;
+
+import io.github.shaksternano.mediamanipulator.Main;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A least recently used cache of downloaded media, stored in a {@link FileLruCache}.
+ * Media is looked up by the URL it was downloaded from, and stored under the SHA-256 hash of its contents,
+ * so the same media downloaded from different URLs is only stored once.
+ * Media that was downloaded into memory is only stored once it has been written to its file.
+ */
+public class MediaCache {
+
+    /**
+     * The maximum total size of the cached media, 256MB.
+     */
+    private static final long MAXIMUM_CACHE_SIZE = 268435456;
+
+    private static final Map<String, String> URL_TO_HASH = new HashMap<>();
+
+    private static final FileLruCache CACHE = new FileLruCache("media_cache", MAXIMUM_CACHE_SIZE, MediaCache::onEvict);
+
+    private static final AtomicLong HITS = new AtomicLong();
+
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    /**
+     * Gets media from the cache, downloading it if it isn't cached.
+     *
+     * @param url        The URL of the media.
+     * @param file       The file to put the media in. The caller owns this file and can delete it.
+     * @param downloader Downloads the media from the URL if it isn't cached.
+     * @return The media.
+     * @throws IOException If an error occurs while downloading or caching the media.
+     */
+    public static DownloadedMedia download(String url, File file, Downloader downloader) throws IOException {
+        String key = getKey(url);
+        String hash;
+        synchronized (MediaCache.class) {
+            hash = URL_TO_HASH.get(key);
+        }
+
+        if (hash != null && CACHE.get(hash, file).isPresent()) {
+            HITS.incrementAndGet();
+            return DownloadedMedia.ofFile(file);
+        }
+
+        MISSES.incrementAndGet();
+        DownloadedMedia media = downloader.download();
+        if (media.isInMemory()) {
+            media.setWriteListener(writtenFile -> put(url, key, media, writtenFile));
+        } else {
+            put(url, key, media, file);
+        }
+
+        return media;
+    }
+
+    public static long getHits() {
+        return HITS.get();
+    }
+
+    public static long getMisses() {
+        return MISSES.get();
+    }
+
+    private static void put(String url, String key, DownloadedMedia media, File file) {
+        try {
+            String contentHash = media.getHash();
+            synchronized (MediaCache.class) {
+                if (!CACHE.contains(contentHash)) {
+                    CACHE.put(contentHash, file);
+                }
+                URL_TO_HASH.put(key, contentHash);
+            }
+        } catch (IOException e) {
+            Main.getLogger().error("Failed to cache media downloaded from " + url + "!", e);
+        }
+    }
+
+    private static synchronized void onEvict(String hash) {
+        URL_TO_HASH.values().removeIf(hash::equals);
+    }
+
+    /**
+     * Gets the cache key of a URL. Discord attachment URLs have their query string
+     * removed, as it contains signing parameters that change over time.
+     *
+     * @param url The URL.
+     * @return The cache key.
+     */
+    private static String getKey(String url) {
+        try {
+            URI uri = URI.create(url);
+            String host = uri.getHost();
+            String path = uri.getPath();
+            if (host != null
+                    && path != null
+                    && (host.endsWith("discordapp.com") || host.endsWith("discordapp.net"))
+                    && path.startsWith("/attachments/")
+            ) {
+                return uri.getScheme() + "://" + host + path;
+            }
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        return url;
+    }
+
+    /**
+     * Downloads media that isn't cached.
+     */
+    @FunctionalInterface
+    public interface Downloader {
+
+        DownloadedMedia download() throws IOException;
+    }
+}
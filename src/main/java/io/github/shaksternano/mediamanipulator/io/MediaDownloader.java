@@ -0,0 +1,243 @@
+package io.github.shaksternano.mediamanipulator.io;
+
+import io.github.shaksternano.mediamanipulator.exception.UnsupportedFileFormatException;
+import io.github.shaksternano.mediamanipulator.util.NetworkUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Predicate;
+
+/**
+ * Downloads media asynchronously using the shared, connection pooling HTTP client from {@link NetworkUtil}.
+ * Downloads are aborted as soon as the response is known to be too large, either from its
+ * {@code Content-Length} header or from the number of bytes received, and as soon as the
+ * magic bytes at the start of the body show that the media is in an unsupported format.
+ * Media whose {@code Content-Length} is no larger than a threshold is downloaded into memory
+ * instead of to a file, see {@link DownloadedMedia}.
+ */
+public class MediaDownloader {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Downloads media from a URL to a file.
+     *
+     * @param url          The URL to download the media from.
+     * @param file         The file to download the media to. This is deleted if the download fails.
+     * @param maxSize      The maximum size of the media in bytes.
+     * @param acceptFormat Tests whether the format of the media, identified by {@link MediaSniffer}, is supported.
+     *                     If null, media of any format is downloaded.
+     * @return A {@link CompletableFuture} that completes with the file once the download has finished.
+     * If the media is too large, the future fails with an {@link IOException}, and if the media is in an
+     * unsupported format, the future fails with an {@link UnsupportedFileFormatException}.
+     */
+    public static CompletableFuture<File> download(String url, File file, long maxSize, @Nullable Predicate<String> acceptFormat) {
+        return download(url, file, maxSize, -1, acceptFormat).thenApply(media -> file);
+    }
+
+    /**
+     * Downloads media from a URL, keeping it in memory if it's small enough.
+     *
+     * @param url             The URL to download the media from.
+     * @param file            The file to download the media to. This is deleted if the download fails.
+     *                        Media kept in memory is only written to this file when {@link DownloadedMedia#getFile()} is called.
+     * @param maxSize         The maximum size of the media in bytes.
+     * @param maxInMemorySize The maximum size in bytes of media that is kept in memory. Media is only kept in memory
+     *                        if the response has a {@code Content-Length} header no larger than this.
+     * @param acceptFormat    Tests whether the format of the media, identified by {@link MediaSniffer}, is supported.
+     *                        If null, media of any format is downloaded.
+     * @return A {@link CompletableFuture} that completes with the media once the download has finished.
+     * If the media is too large, the future fails with an {@link IOException}, and if the media is in an
+     * unsupported format, the future fails with an {@link UnsupportedFileFormatException}.
+     */
+    public static CompletableFuture<DownloadedMedia> download(String url, File file, long maxSize, long maxInMemorySize, @Nullable Predicate<String> acceptFormat) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new IOException("Invalid URL " + url + "!", e));
+        }
+
+        return NetworkUtil.getHttpClient().sendAsync(request, responseInfo -> {
+            int statusCode = responseInfo.statusCode();
+            OptionalLong contentLength = responseInfo.headers().firstValueAsLong("Content-Length");
+            IOException earlyFailure = null;
+            if (statusCode < 200 || statusCode >= 300) {
+                earlyFailure = new IOException("Failed to download " + url + ", status code " + statusCode + "!");
+            } else if (contentLength.isPresent() && contentLength.getAsLong() > maxSize) {
+                earlyFailure = new IOException("Media at " + url + " is " + contentLength.getAsLong() + " bytes, which is larger than the maximum of " + maxSize + " bytes!");
+            }
+            int inMemorySize = earlyFailure == null && contentLength.isPresent() && contentLength.getAsLong() <= maxInMemorySize
+                    ? (int) contentLength.getAsLong()
+                    : -1;
+            return new MediaBodySubscriber(file, maxSize, inMemorySize, acceptFormat, earlyFailure);
+        }).thenApply(HttpResponse::body);
+    }
+
+    /**
+     * Writes a response body to a file, or to an array if its size is known to be small enough,
+     * checking its size and format as it arrives.
+     */
+    private static class MediaBodySubscriber implements HttpResponse.BodySubscriber<DownloadedMedia> {
+
+        private final File FILE;
+        private final long MAX_SIZE;
+        @Nullable
+        private final byte[] BYTES;
+        @Nullable
+        private final Predicate<String> ACCEPT_FORMAT;
+        @Nullable
+        private final IOException EARLY_FAILURE;
+        private final CompletableFuture<DownloadedMedia> RESULT = new CompletableFuture<>();
+        private final byte[] MAGIC_BYTES = new byte[MediaSniffer.MAGIC_BYTES_LENGTH];
+
+        private Flow.Subscription subscription;
+        private FileChannel channel;
+        private int magicBytesRead = 0;
+        private boolean formatChecked = false;
+        private long size = 0;
+
+        /**
+         * Creates a new {@code MediaBodySubscriber}.
+         *
+         * @param file         The file to write the body to.
+         * @param maxSize      The maximum size of the body in bytes.
+         * @param inMemorySize The size of the body if it should be kept in memory, taken from
+         *                     its {@code Content-Length} header, or -1 to write it to the file.
+         * @param acceptFormat Tests whether the format of the media is supported, or null to accept any format.
+         * @param earlyFailure The reason the download failed before the body arrived, or null if it didn't.
+         */
+        private MediaBodySubscriber(File file, long maxSize, int inMemorySize, @Nullable Predicate<String> acceptFormat, @Nullable IOException earlyFailure) {
+            FILE = file;
+            BYTES = inMemorySize < 0 ? null : new byte[inMemorySize];
+            MAX_SIZE = BYTES == null ? maxSize : Math.min(maxSize, inMemorySize);
+            ACCEPT_FORMAT = acceptFormat;
+            EARLY_FAILURE = earlyFailure;
+        }
+
+        @Override
+        public CompletionStage<DownloadedMedia> getBody() {
+            return RESULT;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (EARLY_FAILURE == null) {
+                try {
+                    if (BYTES == null) {
+                        channel = FileChannel.open(FILE.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                    }
+                    subscription.request(1);
+                } catch (IOException e) {
+                    subscription.cancel();
+                    fail(e);
+                }
+            } else {
+                subscription.cancel();
+                fail(EARLY_FAILURE);
+            }
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    int remaining = buffer.remaining();
+                    size += remaining;
+                    if (size > MAX_SIZE) {
+                        throw new IOException("Media is larger than the maximum of " + MAX_SIZE + " bytes!");
+                    }
+
+                    if (!formatChecked) {
+                        int toCopy = Math.min(buffer.remaining(), MAGIC_BYTES.length - magicBytesRead);
+                        buffer.duplicate().get(MAGIC_BYTES, magicBytesRead, toCopy);
+                        magicBytesRead += toCopy;
+                        if (magicBytesRead == MAGIC_BYTES.length) {
+                            checkFormat();
+                        }
+                    }
+
+                    if (BYTES == null) {
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                    } else {
+                        buffer.get(BYTES, (int) size - remaining, remaining);
+                    }
+                }
+
+                subscription.request(1);
+            } catch (IOException e) {
+                subscription.cancel();
+                fail(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                if (!formatChecked) {
+                    checkFormat();
+                }
+                if (BYTES == null) {
+                    channel.close();
+                    RESULT.complete(DownloadedMedia.ofFile(FILE));
+                } else if (size < BYTES.length) {
+                    throw new IOException("Media is smaller than its Content-Length of " + BYTES.length + " bytes!");
+                } else {
+                    RESULT.complete(DownloadedMedia.ofBytes(BYTES, FILE));
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private void checkFormat() throws UnsupportedFileFormatException {
+            formatChecked = true;
+            if (ACCEPT_FORMAT != null) {
+                Optional<String> formatOptional = MediaSniffer.sniffFormat(MAGIC_BYTES, magicBytesRead);
+                if (formatOptional.isEmpty()) {
+                    throw new UnsupportedFileFormatException("Unknown media format!");
+                } else if (!ACCEPT_FORMAT.test(formatOptional.orElseThrow())) {
+                    throw new UnsupportedFileFormatException("Unsupported media format " + formatOptional.orElseThrow() + "!");
+                }
+            }
+        }
+
+        @SuppressWarnings("ResultOfMethodCallIgnored")
+        private void fail(Throwable throwable) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throwable.addSuppressed(e);
+                }
+            }
+            FILE.delete();
+            RESULT.completeExceptionally(throwable);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.shaksternano.mediamanipulator.io;
+
+import java.util.Optional;
+
+/**
+ * Identifies the format of media from the magic bytes at the start of its data.
+ */
+public class MediaSniffer {
+
+    /**
+     * The number of bytes needed to identify every format this class knows about.
+     */
+    public static final int MAGIC_BYTES_LENGTH = 12;
+
+    /**
+     * Identifies the format of media from its first bytes.
+     *
+     * @param bytes  The first bytes of the media. Only the first {@link #MAGIC_BYTES_LENGTH} bytes are looked at.
+     * @param length The number of valid bytes in the array.
+     * @return An {@link Optional} describing the lowercase format name, as used by the image readers.
+     * The optional will be empty if the format could not be identified.
+     */
+    public static Optional<String> sniffFormat(byte[] bytes, int length) {
+        if (startsWith(bytes, length, 0, 'G', 'I', 'F', '8')) {
+            return Optional.of("gif");
+        } else if (startsWith(bytes, length, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return Optional.of("png");
+        } else if (startsWith(bytes, length, 0, 0xFF, 0xD8, 0xFF)) {
+            return Optional.of("jpeg");
+        } else if (startsWith(bytes, length, 0, 'R', 'I', 'F', 'F') && startsWith(bytes, length, 8, 'W', 'E', 'B', 'P')) {
+            return Optional.of("webp");
+        } else if (startsWith(bytes, length, 0, 'B', 'M')) {
+            return Optional.of("bmp");
+        } else if (startsWith(bytes, length, 0, 'I', 'I', 0x2A, 0x00) || startsWith(bytes, length, 0, 'M', 'M', 0x00, 0x2A)) {
+            return Optional.of("tiff");
+        } else if (startsWith(bytes, length, 0, 0x00, 0x00, 0x01, 0x00)) {
+            return Optional.of("ico");
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    private static boolean startsWith(byte[] bytes, int length, int offset, int... magicBytes) {
+        if (length < offset + magicBytes.length) {
+            return false;
+        }
+
+        for (int i = 0; i < magicBytes.length; i++) {
+            if ((bytes[offset + i] & 0xFF) != magicBytes[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -3,9 +3,12 @@ package io.github.shaksternano.mediamanipulator.listener;
 import io.github.shaksternano.mediamanipulator.command.HelpCommand;
 import io.github.shaksternano.mediamanipulator.command.util.CommandParser;
 import io.github.shaksternano.mediamanipulator.command.util.Commands;
+import io.github.shaksternano.mediamanipulator.util.MessageHistory;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.message.MessageDeleteEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.message.MessageUpdateEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.jetbrains.annotations.NotNull;
 
@@ -43,8 +46,29 @@ public class CommandListener extends ListenerAdapter {
      */
     @Override
     public void onMessageReceived(@NotNull MessageReceivedEvent event) {
+        MessageHistory.addMessage(event.getMessage());
         if (!event.getAuthor().equals(event.getJDA().getSelfUser())) {
             CommandParser.parseAndExecute(event);
         }
     }
+
+    /**
+     * Keeps the {@link MessageHistory} up to date with edited messages.
+     *
+     * @param event the {@link MessageUpdateEvent} that triggered the listener.
+     */
+    @Override
+    public void onMessageUpdate(@NotNull MessageUpdateEvent event) {
+        MessageHistory.updateMessage(event.getMessage());
+    }
+
+    /**
+     * Keeps the {@link MessageHistory} up to date with deleted messages.
+     *
+     * @param event the {@link MessageDeleteEvent} that triggered the listener.
+     */
+    @Override
+    public void onMessageDelete(@NotNull MessageDeleteEvent event) {
+        MessageHistory.removeMessage(event.getChannel().getIdLong(), event.getMessageIdLong());
+    }
 }
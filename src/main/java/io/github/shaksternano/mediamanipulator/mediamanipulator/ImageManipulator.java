@@ -5,6 +5,7 @@ import com.google.common.collect.ImmutableSet;
 import com.sksamuel.scrimage.AutocropOps;
 import com.sksamuel.scrimage.ImmutableImage;
 import com.sksamuel.scrimage.pixels.PixelsExtractor;
+import io.github.shaksternano.mediamanipulator.command.util.CommandScheduler;
 import io.github.shaksternano.mediamanipulator.exception.InvalidArgumentException;
 import io.github.shaksternano.mediamanipulator.exception.InvalidMediaException;
 import io.github.shaksternano.mediamanipulator.exception.UnsupportedFileFormatException;
@@ -22,6 +23,7 @@ import io.github.shaksternano.mediamanipulator.image.reader.util.ImageReaderRegi
 import io.github.shaksternano.mediamanipulator.image.reader.util.ImageReaders;
 import io.github.shaksternano.mediamanipulator.image.util.AwtFrame;
 import io.github.shaksternano.mediamanipulator.image.util.Frame;
+import io.github.shaksternano.mediamanipulator.image.util.FrameTimeline;
 import io.github.shaksternano.mediamanipulator.image.util.ImageMediaBuilder;
 import io.github.shaksternano.mediamanipulator.image.util.ImageUtil;
 import io.github.shaksternano.mediamanipulator.image.writer.util.ImageWriterRegistry;
@@ -42,6 +44,7 @@ import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.*;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 /**
  * A manipulator that works with image based media.
@@ -54,27 +57,105 @@ public class ImageManipulator implements MediaManipulator {
 
     private static final Drawable EMPTY = new EmptyDrawable();
 
-    private static File animatedOnlyOperation(File media, String fileFormat, Function<ImageMedia, ImageMedia> operation, String operationName, String staticImageErrorMessage) throws IOException {
-        if (ANIMATED_IMAGE_FORMATS.contains(fileFormat.toLowerCase())) {
-            ImageMedia imageMedia = ImageReaders.read(media, fileFormat, null);
+    private static final String SPEED_STATIC_IMAGE_ERROR = "Cannot change the speed of a static image.";
+    private static final String REDUCE_FPS_STATIC_IMAGE_ERROR = "Cannot reduce the FPS of a static image.";
 
-            if (imageMedia.isAnimated()) {
-                ImageMedia result = operation.apply(imageMedia);
-                File output = FileUtil.getUniqueTempFile(operationName + "." + fileFormat);
-                ImageWriters.write(result, output, fileFormat);
-                return output;
+    private static void requireAnimatedFormat(String fileFormat, String staticImageErrorMessage) throws UnsupportedFileFormatException {
+        if (!ANIMATED_IMAGE_FORMATS.contains(fileFormat.toLowerCase())) {
+            throw new UnsupportedFileFormatException(staticImageErrorMessage);
+        }
+    }
+
+    private static void requireAnimated(ImageMedia imageMedia, String staticImageErrorMessage) throws UnsupportedFileFormatException {
+        if (!imageMedia.isAnimated()) {
+            throw new UnsupportedFileFormatException(staticImageErrorMessage);
+        }
+    }
+
+    /**
+     * Decodes an image based file, applies an operation to it and encodes the result.
+     *
+     * @param media         The image based file to apply the operation to.
+     * @param fileFormat    The image format of the file.
+     * @param operation     The operation to apply.
+     * @param operationName The name of the operation, used as the name of the resulting file.
+     *                      If null, the name of the original file is used.
+     * @return The resulting file. If the operation did not change the image, this is the original file.
+     * @throws IOException If an error occurs while applying the operation.
+     */
+    public File apply(File media, String fileFormat, ImageMediaOperation operation, @Nullable String operationName) throws IOException {
+        try (ImageMedia imageMedia = ImageReaders.read(media, fileFormat, null)) {
+            ImageMedia result = operation.apply(imageMedia);
+            if (result == imageMedia) {
+                return media;
+            } else {
+                return write(result, imageMedia.isAnimated(), media, fileFormat, operationName);
+            }
+        }
+    }
+
+    /**
+     * Decodes an image based file, applies an operation to it, encodes the result and
+     * then compresses it to fit within the upload size limit. Compression reuses the
+     * decoded result of the operation, so the file is only decoded once.
+     *
+     * @param media         The image based file to apply the operation to.
+     * @param fileFormat    The image format of the file.
+     * @param operation     The operation to apply.
+     * @param operationName The name of the operation, used as the name of the resulting file.
+     *                      If null, the name of the original file is used.
+     * @param guild         The guild the file will be uploaded to. Can be null.
+     * @return The resulting file.
+     * @throws IOException If an error occurs while applying the operation.
+     */
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    public File applyAndCompress(File media, String fileFormat, ImageMediaOperation operation, @Nullable String operationName, @Nullable Guild guild) throws IOException {
+        try (ImageMedia imageMedia = ImageReaders.read(media, fileFormat, null)) {
+            boolean originalIsAnimated = imageMedia.isAnimated();
+            ImageMedia result = operation.apply(imageMedia);
+
+            String outputFormat = getOutputFormat(result, originalIsAnimated, fileFormat);
+            File output = write(result, originalIsAnimated, media, fileFormat, operationName);
+            long maxSize = DiscordUtil.getMaxUploadSize(guild);
+            if (output.length() > maxSize) {
+                try {
+                    return compress(result, output, outputFormat, maxSize);
+                } finally {
+                    output.delete();
+                }
             } else {
-                throw new UnsupportedFileFormatException(staticImageErrorMessage);
+                return output;
             }
+        }
+    }
+
+    private static String getOutputFormat(ImageMedia result, boolean originalIsAnimated, String fileFormat) {
+        if (result.isAnimated() && !originalIsAnimated) {
+            return "gif";
         } else {
-            throw new UnsupportedFileFormatException(staticImageErrorMessage);
+            return fileFormat;
         }
     }
 
-    @SuppressWarnings("UnusedAssignment")
+    private static File write(ImageMedia result, boolean originalIsAnimated, File media, String fileFormat, @Nullable String operationName) throws IOException {
+        String outputFormat = getOutputFormat(result, originalIsAnimated, fileFormat);
+        String outputName = operationName == null ? media.getName() : FileUtil.changeFileName(media.getName(), operationName);
+        if (!outputFormat.equals(fileFormat)) {
+            outputName = FileUtil.changeExtension(outputName, outputFormat);
+        }
+
+        File output = FileUtil.getUniqueTempFile(outputName);
+        ImageWriters.write(result, output, outputFormat);
+        return output;
+    }
+
     @Override
     public File caption(File media, String fileFormat, List<String> words, Map<String, Drawable> nonTextParts, boolean caption2) throws IOException {
-        ImageMedia imageMedia = ImageReaders.read(media, fileFormat, null);
+        return apply(media, fileFormat, imageMedia -> caption(imageMedia, words, nonTextParts, caption2), "captioned");
+    }
+
+    @SuppressWarnings("UnusedAssignment")
+    public ImageMedia caption(ImageMedia imageMedia, List<String> words, Map<String, Drawable> nonTextParts, boolean caption2) throws IOException {
         BufferedImage firstImage = imageMedia.getFirstImage();
 
         int width = firstImage.getWidth();
@@ -83,8 +164,7 @@ public class ImageManipulator implements MediaManipulator {
         int smallestDimension = Math.min(width, height);
 
         String fontName = caption2 ? "Helvetica Neue" : "Futura-CondensedExtraBold";
-        float fontRatio = caption2 ? 9 : 7;
-        Font font = new Font(fontName, Font.PLAIN, (int) (smallestDimension / fontRatio));
+        Font font = new Font(fontName, Font.PLAIN, getCaptionFontSize(smallestDimension, caption2));
         int padding = (int) (smallestDimension * 0.04F);
         Graphics2D originalGraphics = firstImage.createGraphics();
 
@@ -119,8 +199,6 @@ public class ImageManipulator implements MediaManipulator {
 
         paragraph = null;
 
-        boolean originalIsAnimated = imageMedia.isAnimated();
-
         ImageMedia withCaptionBox = ImageMediaBuilder.fromCollection(imageMedia.parallelStream().map(frame -> {
             BufferedImage originalImage = frame.getImage();
             BufferedImage withCaptionBoxImage = new BufferedImage(originalImage.getWidth(), originalImage.getHeight() + fillHeight, ImageUtil.getType(originalImage));
@@ -158,31 +236,34 @@ public class ImageManipulator implements MediaManipulator {
                 null
         );
 
-        ImageMedia result = drawTextOnImage(words, nonTextParts, containerImageInfo);
+        return drawTextOnImage(words, nonTextParts, containerImageInfo);
+    }
 
-        String outputFormat;
-        String outputExtension;
-        if (result.isAnimated() && !originalIsAnimated) {
-            outputFormat = "gif";
-            outputExtension = "." + outputFormat;
-        } else {
-            outputFormat = fileFormat;
-            outputExtension = com.google.common.io.Files.getFileExtension(media.getName());
+    @Override
+    public File demotivate(File media, String fileFormat, List<String> words, List<String> subText, Map<String, Drawable> nonTextParts) throws IOException {
+        return apply(media, fileFormat, imageMedia -> demotivate(imageMedia, words, subText, nonTextParts), "demotivated");
+    }
 
-            if (!outputExtension.isBlank()) {
-                outputExtension = "." + outputExtension;
-            }
-        }
+    /**
+     * Gets the font size that caption text starts at before it is shrunk to fit,
+     * which is the tallest a line of the caption can be.
+     *
+     * @param imageMedia The image to caption.
+     * @param caption2   Whether the text is put on the bottom of the image instead of the top.
+     * @return The starting font size.
+     */
+    public static int getCaptionFontSize(ImageMedia imageMedia, boolean caption2) {
+        BufferedImage firstImage = imageMedia.getFirstImage();
+        return getCaptionFontSize(Math.min(firstImage.getWidth(), firstImage.getHeight()), caption2);
+    }
 
-        File outputFile = FileUtil.getUniqueTempFile(containerImageInfo.getResultName() + outputExtension);
-        ImageWriters.write(result, outputFile, outputFormat);
-        return outputFile;
+    private static int getCaptionFontSize(int smallestDimension, boolean caption2) {
+        float fontRatio = caption2 ? 9 : 7;
+        return (int) (smallestDimension / fontRatio);
     }
 
     @SuppressWarnings("UnusedAssignment")
-    @Override
-    public File demotivate(File media, String fileFormat, List<String> words, List<String> subText, Map<String, Drawable> nonTextParts) throws IOException {
-        ImageMedia imageMedia = ImageReaders.read(media, fileFormat, null);
+    public ImageMedia demotivate(ImageMedia imageMedia, List<String> words, List<String> subText, Map<String, Drawable> nonTextParts) throws IOException {
         BufferedImage firstImage = imageMedia.getFirstImage();
 
         int contentWidth = firstImage.getWidth();
@@ -194,7 +275,7 @@ public class ImageManipulator implements MediaManipulator {
 
         Graphics2D graphics = firstImage.createGraphics();
 
-        Font font = new Font("Times", Font.PLAIN, contentSmallestDimension / 6);
+        Font font = new Font("Times", Font.PLAIN, getDemotivateFontSize(contentSmallestDimension));
         Font subFont = font.deriveFont(font.getSize() / 3F);
         graphics.setFont(font);
         ImageUtil.configureTextDrawQuality(graphics);
@@ -215,7 +296,6 @@ public class ImageManipulator implements MediaManipulator {
 
         graphics.dispose();
         firstImage = null;
-        imageMedia = null;
 
         int demotivateWidth = contentWidth + (demotivateImagePadding * 2);
         int demotivateHeight = contentHeight + (demotivateImagePadding * 2) + paragraphHeight + mainSubSpacing + subParagraphHeight;
@@ -242,9 +322,8 @@ public class ImageManipulator implements MediaManipulator {
         if (words.isEmpty()) {
             demotivateWithTextMedia = new StaticImage(demotivateBackground);
         } else {
-            ImageMediaBuilder builder = new ImageMediaBuilder();
             int paragraphFrames = paragraph.getFrameCount();
-            for (int i = 0; i < paragraphFrames; i++) {
+            demotivateWithTextMedia = ImageMediaBuilder.fromCollection(IntStream.range(0, paragraphFrames).parallel().mapToObj(i -> {
                 BufferedImage demotivateWithText = new BufferedImage(demotivateWidth, demotivateHeight, contentImageType);
                 Graphics2D demotivateWithTextGraphics = demotivateWithText.createGraphics();
                 demotivateWithTextGraphics.drawImage(demotivateBackground, 0, 0, null);
@@ -255,18 +334,20 @@ public class ImageManipulator implements MediaManipulator {
                 paragraph.draw(
                         demotivateWithTextGraphics,
                         demotivateImagePadding,
-                        demotivateImagePadding + contentHeight + (demotivateImagePadding / 2)
+                        demotivateImagePadding + contentHeight + (demotivateImagePadding / 2),
+                        i
                 );
                 demotivateWithTextGraphics.setFont(subFont);
                 subParagraph.draw(
                         demotivateWithTextGraphics,
                         demotivateImagePadding,
-                        demotivateImagePadding + contentHeight + (demotivateImagePadding / 2) + paragraphHeight + mainSubSpacing
+                        demotivateImagePadding + contentHeight + (demotivateImagePadding / 2) + paragraphHeight + mainSubSpacing,
+                        i
                 );
+                demotivateWithTextGraphics.dispose();
 
-                builder.add(new AwtFrame(demotivateWithText, Frame.GIF_MINIMUM_FRAME_DURATION));
-            }
-            demotivateWithTextMedia = builder.build();
+                return new AwtFrame(demotivateWithText, Frame.GIF_MINIMUM_FRAME_DURATION);
+            }).collect(ImmutableList.toImmutableList()));
         }
 
         ContainerImageInfo containerImageInfo = new CustomContainerImageInfo(
@@ -287,19 +368,38 @@ public class ImageManipulator implements MediaManipulator {
                 null
         );
 
-        return containerImageWithImage(media, fileFormat, containerImageInfo);
+        return containerImageWithImage(imageMedia, containerImageInfo);
     }
 
-    @SuppressWarnings("UnusedAssignment")
     @Override
     public File impact(File media, String fileFormat, List<String> topWords, List<String> bottomWords, Map<String, Drawable> nonTextParts) throws IOException {
-        ImageMedia imageMedia = ImageReaders.read(media, fileFormat, null);
+        return apply(media, fileFormat, imageMedia -> impact(imageMedia, topWords, bottomWords, nonTextParts), "impacted");
+    }
+
+    /**
+     * Gets the font size that the main demotivate text starts at before it is shrunk to fit,
+     * which is the tallest a line of the text can be.
+     *
+     * @param imageMedia The image to demotivate.
+     * @return The starting font size.
+     */
+    public static int getDemotivateFontSize(ImageMedia imageMedia) {
+        BufferedImage firstImage = imageMedia.getFirstImage();
+        return getDemotivateFontSize(Math.min(firstImage.getWidth(), firstImage.getHeight()));
+    }
+
+    private static int getDemotivateFontSize(int contentSmallestDimension) {
+        return contentSmallestDimension / 6;
+    }
+
+    @SuppressWarnings("UnusedAssignment")
+    public ImageMedia impact(ImageMedia imageMedia, List<String> topWords, List<String> bottomWords, Map<String, Drawable> nonTextParts) throws IOException {
         BufferedImage firstImage = imageMedia.getFirstImage();
 
         int width = firstImage.getWidth();
         int height = firstImage.getHeight() / 5;
 
-        int smallestDimension = Math.min(width, height);
+        int smallestDimension = getImpactFontSize(width, firstImage.getHeight());
         int padding = (int) (smallestDimension * 0.04F);
 
         int topY = 0;
@@ -308,8 +408,6 @@ public class ImageManipulator implements MediaManipulator {
         firstImage.flush();
         firstImage = null;
 
-        boolean originalIsAnimated = imageMedia.isAnimated();
-
         ContainerImageInfo topWordsContainerImageInfo = new CustomContainerImageInfo(
                 imageMedia,
                 "impacted",
@@ -348,35 +446,34 @@ public class ImageManipulator implements MediaManipulator {
                 topWordsContainerImageInfo.getFill().orElse(null)
         );
 
-        result = drawTextOnImage(bottomWords, nonTextParts, bottomWordsContainerImageInfo);
-
-        String outputFormat;
-        String outputExtension;
-        if (result.isAnimated() && !originalIsAnimated) {
-            outputFormat = "gif";
-            outputExtension = "." + outputFormat;
-        } else {
-            outputFormat = fileFormat;
-            outputExtension = com.google.common.io.Files.getFileExtension(media.getName());
+        return drawTextOnImage(bottomWords, nonTextParts, bottomWordsContainerImageInfo);
+    }
 
-            if (!outputExtension.isBlank()) {
-                outputExtension = "." + outputExtension;
-            }
-        }
+    /**
+     * Gets the font size that impact text starts at before it is shrunk to fit,
+     * which is the tallest a line of the text can be.
+     *
+     * @param imageMedia The image to put the text on.
+     * @return The starting font size.
+     */
+    public static int getImpactFontSize(ImageMedia imageMedia) {
+        BufferedImage firstImage = imageMedia.getFirstImage();
+        return getImpactFontSize(firstImage.getWidth(), firstImage.getHeight());
+    }
 
-        File outputFile = FileUtil.getUniqueTempFile(topWordsContainerImageInfo.getResultName() + outputExtension);
-        ImageWriters.write(result, outputFile, outputFormat);
-        return outputFile;
+    private static int getImpactFontSize(int width, int height) {
+        return Math.min(width, height / 5);
     }
 
-    @SuppressWarnings("UnusedAssignment")
     @Override
     public File containerImageWithImage(File media, String fileFormat, ContainerImageInfo containerImageInfo) throws IOException {
-        ImageMedia containerImage = containerImageInfo.getImage();
-        ImageMedia contentImage = ImageReaders.read(media, fileFormat, null);
+        return apply(media, fileFormat, imageMedia -> containerImageWithImage(imageMedia, containerImageInfo), containerImageInfo.getResultName());
+    }
 
+    @SuppressWarnings("UnusedAssignment")
+    public ImageMedia containerImageWithImage(ImageMedia contentImage, ContainerImageInfo containerImageInfo) throws IOException {
+        ImageMedia containerImage = containerImageInfo.getImage();
         int imageType = ImageUtil.getType(contentImage.getFirstImage());
-        boolean contentIsAnimated = contentImage.isAnimated();
 
         ImageMedia resizedContentImage = ImageMediaBuilder.fromCollection(contentImage.parallelStream().map(frame -> {
             int width = containerImageInfo.getImageContentWidth();
@@ -405,26 +502,7 @@ public class ImageManipulator implements MediaManipulator {
             fill = Color.WHITE;
         }
 
-        ImageMedia result = ImageUtil.overlayImage(containerImage, resizedContentImage, containerImageInfo.isBackground(), imageX, imageY, containerImageInfo.getContentClip().orElse(null), imageType, fill, false);
-
-        String outputFormat;
-        String outputExtension;
-        if (result.isAnimated() && !contentIsAnimated) {
-            outputFormat = "gif";
-            outputExtension = "." + outputFormat;
-        } else {
-            outputFormat = fileFormat;
-            outputExtension = com.google.common.io.Files.getFileExtension(media.getName());
-
-            if (!outputExtension.isBlank()) {
-                outputExtension = "." + outputExtension;
-            }
-        }
-
-        File output = FileUtil.getUniqueTempFile(containerImageInfo.getResultName() + "." + outputExtension);
-        ImageWriters.write(result, output, outputFormat);
-
-        return output;
+        return ImageUtil.overlayImage(containerImage, resizedContentImage, containerImageInfo.isBackground(), imageX, imageY, containerImageInfo.getContentClip().orElse(null), imageType, fill, false);
     }
 
     @Override
@@ -472,60 +550,71 @@ public class ImageManipulator implements MediaManipulator {
             int containerCentreY = containerImageInfo.getTextContentY() + (containerImageInfo.getTextContentHeight() / 2);
 
             int paragraphX = containerImageInfo.getTextContentX();
-            int paragraphY = containerCentreY - (paragraphHeight / 2);
-            switch (containerImageInfo.getTextContentPosition()) {
-                case TOP -> paragraphY = containerImageInfo.getTextContentY();
+            int paragraphY = switch (containerImageInfo.getTextContentPosition()) {
+                case TOP -> containerImageInfo.getTextContentY();
                 case BOTTOM ->
-                        paragraphY = containerImageInfo.getTextContentY() + (containerImageInfo.getTextContentHeight() - paragraphHeight);
-            }
-
-            ImageMediaBuilder builder = new ImageMediaBuilder();
+                        containerImageInfo.getTextContentY() + (containerImageInfo.getTextContentHeight() - paragraphHeight);
+                default -> containerCentreY - (paragraphHeight / 2);
+            };
 
+            BufferedImage firstImage = imageMedia.getFirstImage();
+            Shape contentClip = containerImageInfo.getContentClip().orElse(null);
             int paragraphFrameCount = paragraph.getFrameCount();
+            List<TextOverlay> overlays = IntStream.range(0, paragraphFrameCount)
+                    .parallel()
+                    .mapToObj(paragraphFrameIndex -> renderTextOverlay(firstImage.getWidth(), firstImage.getHeight(), containerImageInfo, contentClip, paragraph, paragraphX, paragraphY, fontSize, paragraphFrameIndex))
+                    .collect(ImmutableList.toImmutableList());
+
+            List<TextFrame> textFrames = new ArrayList<>();
             if (paragraphFrameCount == 1) {
-                for (Frame frame : imageMedia) {
-                    BufferedImage image = frame.getImage();
-                    BufferedImage imageWithText = drawOnImage(image, containerImageInfo, paragraph, paragraphX, paragraphY, fontSize);
-                    int duration = frame.getDuration();
-                    builder.add(new AwtFrame(imageWithText, duration));
-                    frame.flush();
+                for (int i = 0; i < imageMedia.getFrameCount(); i++) {
+                    textFrames.add(new TextFrame(i, overlays.get(0), imageMedia.getFrame(i).getDuration()));
                 }
             } else {
-                List<BufferedImage> normalisedImages = imageMedia.toNormalisedImages();
-                List<BufferedImage> extendedImages = CollectionUtil.extendLoop(normalisedImages, paragraphFrameCount);
+                FrameTimeline timeline = FrameTimeline.of(imageMedia).nonEmpty();
+                int slotCount = Math.max(timeline.getSlotCount(), paragraphFrameCount);
 
-                normalisedImages = null;
+                int previousFrameIndex = -1;
 
-                BufferedImage previousImage = null;
+                for (int slot = 0; slot < slotCount; slot++) {
+                    int frameIndex = timeline.frameAt(slot % timeline.getSlotCount());
+                    int overlayIndex = slot % paragraphFrameCount;
 
-                Iterator<BufferedImage> imageIterator = extendedImages.iterator();
-                while (imageIterator.hasNext()) {
-                    BufferedImage image = imageIterator.next();
-
-                    if (image.equals(previousImage) && paragraph.sameAsPreviousFrame()) {
-                        builder.increaseLastFrameDuration(Frame.GIF_MINIMUM_FRAME_DURATION);
+                    if (frameIndex == previousFrameIndex && paragraph.sameAsPreviousFrame(overlayIndex)) {
+                        TextFrame previous = textFrames.remove(textFrames.size() - 1);
+                        textFrames.add(new TextFrame(frameIndex, previous.overlay(), previous.duration() + Frame.GIF_MINIMUM_FRAME_DURATION));
                     } else {
-                        BufferedImage imageWithText = drawOnImage(image, containerImageInfo, paragraph, paragraphX, paragraphY, fontSize);
-                        builder.add(new AwtFrame(imageWithText, Frame.GIF_MINIMUM_FRAME_DURATION));
-                        previousImage = imageWithText;
+                        textFrames.add(new TextFrame(frameIndex, overlays.get(overlayIndex), Frame.GIF_MINIMUM_FRAME_DURATION));
+                        previousFrameIndex = frameIndex;
                     }
-
-                    imageIterator.remove();
                 }
             }
 
-            return builder.build();
+            return ImageMediaBuilder.fromCollection(textFrames.parallelStream().map(textFrame -> {
+                BufferedImage image = imageMedia.getFrame(textFrame.frameIndex()).getImage();
+                BufferedImage imageWithText = drawOnImage(image, containerImageInfo, contentClip, textFrame.overlay());
+                return new AwtFrame(imageWithText, textFrame.duration());
+            }).collect(ImmutableList.toImmutableList()));
         }
     }
 
+    /**
+     * An input frame and the text overlay to composite onto it.
+     *
+     * @param frameIndex The index of the input frame.
+     * @param overlay    The text overlay.
+     * @param duration   The duration of the output frame.
+     */
+    private record TextFrame(int frameIndex, TextOverlay overlay, int duration) {
+    }
+
     @Override
     public File uncaption(File media, String fileFormat) throws IOException {
-        return cropImage(
-                media,
-                fileFormat,
-                this::findNonCaptionArea,
-                "uncaptioned"
-        );
+        return apply(media, fileFormat, this::uncaption, "uncaptioned");
+    }
+
+    public ImageMedia uncaption(ImageMedia imageMedia) {
+        return cropImage(imageMedia, this::findNonCaptionArea);
     }
 
     private Rectangle findNonCaptionArea(BufferedImage image) {
@@ -594,7 +683,15 @@ public class ImageManipulator implements MediaManipulator {
 
     @Override
     public File stretch(File media, String fileFormat, float widthMultiplier, float heightMultiplier, boolean raw) throws IOException {
-        return applyToEachFrame(media, fileFormat, image -> ImageUtil.stretch(image, (int) (image.getWidth() * widthMultiplier), (int) (image.getHeight() * heightMultiplier), raw), "stretched");
+        return applyToEachFrame(media, fileFormat, stretchOperation(widthMultiplier, heightMultiplier, raw), "stretched");
+    }
+
+    public ImageMedia stretch(ImageMedia imageMedia, float widthMultiplier, float heightMultiplier, boolean raw) {
+        return applyToEachFrame(imageMedia, stretchOperation(widthMultiplier, heightMultiplier, raw));
+    }
+
+    private static Function<BufferedImage, BufferedImage> stretchOperation(float widthMultiplier, float heightMultiplier, boolean raw) {
+        return image -> ImageUtil.stretch(image, (int) (image.getWidth() * widthMultiplier), (int) (image.getHeight() * heightMultiplier), raw);
     }
 
     @Override
@@ -602,16 +699,27 @@ public class ImageManipulator implements MediaManipulator {
         return applyToEachFrame(media, fileFormat, image -> ImageUtil.resize(image, resizeMultiplier, raw), rename ? "resized" : null);
     }
 
+    public ImageMedia resize(ImageMedia imageMedia, float resizeMultiplier, boolean raw) {
+        return applyToEachFrame(imageMedia, image -> ImageUtil.resize(image, resizeMultiplier, raw));
+    }
+
     @Override
     public File crop(File media, String fileFormat, float topRatio, float rightRatio, float bottomRatio, float leftRatio) throws IOException {
         if (topRatio == 0 && rightRatio == 0 && bottomRatio == 0 && leftRatio == 0) {
             return media;
+        } else {
+            return apply(media, fileFormat, imageMedia -> crop(imageMedia, topRatio, rightRatio, bottomRatio, leftRatio), "cropped");
+        }
+    }
+
+    public ImageMedia crop(ImageMedia imageMedia, float topRatio, float rightRatio, float bottomRatio, float leftRatio) {
+        if (topRatio == 0 && rightRatio == 0 && bottomRatio == 0 && leftRatio == 0) {
+            return imageMedia;
         } else if (topRatio < 0 || rightRatio < 0 || bottomRatio < 0 || leftRatio < 0) {
             throw new InvalidArgumentException("Crop ratios must be positive");
         } else if (topRatio > 1 || rightRatio > 1 || bottomRatio > 1 || leftRatio > 1) {
             throw new InvalidArgumentException("Crop ratios must be less than 1");
         } else {
-            ImageMedia imageMedia = ImageReaders.read(media, fileFormat, null);
             BufferedImage firstImage = imageMedia.getFirstImage();
 
             int width = firstImage.getWidth();
@@ -622,23 +730,28 @@ public class ImageManipulator implements MediaManipulator {
             int newWidth = Math.max((int) (width * (1 - leftRatio - rightRatio)), 1);
             int newHeight = Math.max((int) (height * (1 - topRatio - bottomRatio)), 1);
 
-            return applyToEachFrame(media, fileFormat, image -> image.getSubimage(x, y, newWidth, newHeight), "cropped");
+            return applyToEachFrame(imageMedia, image -> image.getSubimage(x, y, newWidth, newHeight));
         }
     }
 
     @Override
     public File autoCrop(File media, String fileFormat, Color cropColor, int colorTolerance) throws IOException {
-        return cropImage(
-                media,
-                fileFormat,
-                image -> findAutoCropArea(image, cropColor, colorTolerance),
-                "cropped"
-        );
+        return apply(media, fileFormat, imageMedia -> autoCrop(imageMedia, cropColor, colorTolerance), "cropped");
+    }
+
+    public ImageMedia autoCrop(ImageMedia imageMedia, Color cropColor, int colorTolerance) {
+        return cropImage(imageMedia, image -> findAutoCropArea(image, cropColor, colorTolerance));
     }
 
+    /**
+     * Crops every frame of an image to the union of the areas to keep found in each frame.
+     *
+     * @param imageMedia         The image to crop.
+     * @param cropKeepAreaFinder Finds the area of a frame to keep.
+     * @return The cropped image, or the original image if nothing needs to be cropped.
+     */
     @SuppressWarnings("UnusedAssignment")
-    private static File cropImage(File media, String imageFormat, Function<BufferedImage, Rectangle> cropKeepAreaFinder, @Nullable String operationName) throws IOException {
-        ImageMedia imageMedia = ImageReaders.read(media, imageFormat, null);
+    private static ImageMedia cropImage(ImageMedia imageMedia, Function<BufferedImage, Rectangle> cropKeepAreaFinder) {
         BufferedImage firstImage = imageMedia.getFirstImage();
 
         Rectangle toKeep = null;
@@ -663,9 +776,7 @@ public class ImageManipulator implements MediaManipulator {
             }
         }
 
-        firstImage.flush();
         firstImage = null;
-        imageMedia = null;
 
         if (toKeep == null || (
                 toKeep.getX() == 0
@@ -673,19 +784,17 @@ public class ImageManipulator implements MediaManipulator {
                         && toKeep.getWidth() == width
                         && toKeep.getHeight() == height
         )) {
-            return media;
+            return imageMedia;
         } else {
             final Rectangle finalToKeep = toKeep;
             return applyToEachFrame(
-                    media,
-                    imageFormat,
+                    imageMedia,
                     image -> image.getSubimage(
                             (int) finalToKeep.getX(),
                             (int) finalToKeep.getY(),
                             (int) finalToKeep.getWidth(),
                             (int) finalToKeep.getHeight()
-                    ),
-                    operationName
+                    )
             );
         }
     }
@@ -713,30 +822,36 @@ public class ImageManipulator implements MediaManipulator {
 
     @Override
     public File pixelate(File media, String fileFormat, int pixelationMultiplier) throws IOException {
-        return applyToEachFrame(
-                media,
-                fileFormat,
-                image -> ImageUtil.stretch(
-                        ImageUtil.stretch(
-                                image,
-                                image.getWidth() / pixelationMultiplier,
-                                image.getHeight() / pixelationMultiplier,
-                                true
-                        ),
-                        image.getWidth(),
-                        image.getHeight(),
+        return applyToEachFrame(media, fileFormat, pixelateOperation(pixelationMultiplier), "pixelated");
+    }
+
+    public ImageMedia pixelate(ImageMedia imageMedia, int pixelationMultiplier) {
+        return applyToEachFrame(imageMedia, pixelateOperation(pixelationMultiplier));
+    }
+
+    private static Function<BufferedImage, BufferedImage> pixelateOperation(int pixelationMultiplier) {
+        return image -> ImageUtil.stretch(
+                ImageUtil.stretch(
+                        image,
+                        image.getWidth() / pixelationMultiplier,
+                        image.getHeight() / pixelationMultiplier,
                         true
                 ),
-                "pixelated"
+                image.getWidth(),
+                image.getHeight(),
+                true
         );
     }
 
-    @SuppressWarnings("UnusedAssignment")
     @Override
     public File speechBubble(File media, String fileFormat, boolean cutOut) throws IOException {
+        return apply(media, fileFormat, imageMedia -> speechBubble(imageMedia, cutOut), "speech_bubbled");
+    }
+
+    @SuppressWarnings("UnusedAssignment")
+    public ImageMedia speechBubble(ImageMedia imageMedia, boolean cutOut) throws IOException {
         String speechBubblePath = cutOut ? "image/overlay/speech_bubble_2_partial.png" : "image/overlay/speech_bubble_1_partial.png";
 
-        ImageMedia imageMedia = ImageReaders.read(media, fileFormat, null);
         BufferedImage firstImage = imageMedia.getFirstImage();
 
         int width = firstImage.getWidth();
@@ -758,76 +873,78 @@ public class ImageManipulator implements MediaManipulator {
             }
         }
 
-        firstImage.flush();
         firstImage = null;
-        imageMedia = null;
 
         BufferedImage resizedSpeechBubble = ImageUtil.fitWidth(speechBubble, width);
 
         speechBubble.flush();
         speechBubble = null;
 
-        String operationName = "speech_bubbled";
         if (cutOut) {
             final BufferedImage finalResizedSpeechBubble = resizedSpeechBubble;
-            return applyToEachFrame(media, fileFormat, image -> ImageUtil.cutoutImage(image, finalResizedSpeechBubble, 0, 0, 0xFFFFFF), operationName);
+            return applyToEachFrame(imageMedia, image -> ImageUtil.cutoutImage(image, finalResizedSpeechBubble, 0, 0, 0xFFFFFF));
         } else {
             BufferedImage filledSpeechBubble = ImageUtil.fill(resizedSpeechBubble, Color.WHITE);
 
             resizedSpeechBubble.flush();
             resizedSpeechBubble = null;
 
-            return applyToEachFrame(media, fileFormat, image -> ImageUtil.overlayImage(image, filledSpeechBubble, false, 0, -filledSpeechBubble.getHeight(), null, null, null, true), operationName);
+            return applyToEachFrame(imageMedia, image -> ImageUtil.overlayImage(image, filledSpeechBubble, false, 0, -filledSpeechBubble.getHeight(), null, null, null, true));
         }
     }
 
     @Override
     public File speed(File media, String fileFormat, float speedMultiplier) throws IOException {
-        return animatedOnlyOperation(media, fileFormat, imageMedia -> {
-            if (speedMultiplier != 1 && speedMultiplier > 0) {
-                ImageMediaBuilder builder = new ImageMediaBuilder();
+        requireAnimatedFormat(fileFormat, SPEED_STATIC_IMAGE_ERROR);
+        return apply(media, fileFormat, imageMedia -> speed(imageMedia, speedMultiplier), "changed_speed");
+    }
 
-                for (Frame frame : imageMedia) {
-                    builder.add(new AwtFrame(frame.getImage(), Math.round(frame.getDuration() / speedMultiplier)));
-                }
+    public ImageMedia speed(ImageMedia imageMedia, float speedMultiplier) throws UnsupportedFileFormatException {
+        requireAnimated(imageMedia, SPEED_STATIC_IMAGE_ERROR);
+        if (speedMultiplier != 1 && speedMultiplier > 0) {
+            ImageMediaBuilder builder = new ImageMediaBuilder();
 
-                ImageMedia modifiedDurations = builder.build();
-                List<BufferedImage> keptFrames = modifiedDurations.toNormalisedImages();
+            for (Frame frame : imageMedia) {
+                builder.add(new AwtFrame(frame.getImage(), Math.round(frame.getDuration() / speedMultiplier)));
+            }
 
-                ImageMediaBuilder resultBuilder = new ImageMediaBuilder();
+            ImageMedia modifiedDurations = builder.build();
+            FrameTimeline timeline = FrameTimeline.of(modifiedDurations);
 
-                for (BufferedImage image : keptFrames) {
-                    resultBuilder.add(new AwtFrame(image, Frame.GIF_MINIMUM_FRAME_DURATION));
-                }
+            ImageMediaBuilder resultBuilder = new ImageMediaBuilder();
 
-                int duration = resultBuilder.getDuration();
-                int expectedDuration = Math.round(imageMedia.getDuration() / speedMultiplier);
-                if (expectedDuration > duration) {
-                    resultBuilder.increaseLastFrameDuration(expectedDuration - duration);
-                }
+            for (int run = 0; run < timeline.getRunCount(); run++) {
+                BufferedImage image = modifiedDurations.getFrame(timeline.getRunFrameIndex(run)).getImage();
+                resultBuilder.add(new AwtFrame(image, timeline.getRunSlotCount(run) * Frame.GIF_MINIMUM_FRAME_DURATION));
+            }
 
-                ImageMedia result = resultBuilder.build();
+            int duration = resultBuilder.getDuration();
+            int expectedDuration = Math.round(imageMedia.getDuration() / speedMultiplier);
+            if (expectedDuration > duration) {
+                resultBuilder.increaseLastFrameDuration(expectedDuration - duration);
+            }
 
-                if (result.isEmpty()) {
-                    result = new ImageMediaBuilder().add(imageMedia.getFrame(0)).build();
-                }
+            ImageMedia result = resultBuilder.build();
 
-                return result;
-            } else {
-                throw new InvalidArgumentException("Speed multiplier " + speedMultiplier + " is not allowed!");
+            if (result.isEmpty()) {
+                result = new ImageMediaBuilder().add(imageMedia.getFrame(0)).build();
             }
-        }, "changed_speed", "Cannot change the speed of a static image.");
+
+            return result;
+        } else {
+            throw new InvalidArgumentException("Speed multiplier " + speedMultiplier + " is not allowed!");
+        }
     }
 
     @Override
     public File reduceFps(File media, String fileFormat, int fpsReductionRatio, boolean rename) throws IOException {
-        return animatedOnlyOperation(
-                media,
-                fileFormat,
-                imageMedia -> MediaCompression.removeFrames(imageMedia, fpsReductionRatio),
-                rename ? "reduced_fps" : null,
-                "Cannot reduce the FPS of a static image."
-        );
+        requireAnimatedFormat(fileFormat, REDUCE_FPS_STATIC_IMAGE_ERROR);
+        return apply(media, fileFormat, imageMedia -> reduceFps(imageMedia, fpsReductionRatio), rename ? "reduced_fps" : null);
+    }
+
+    public ImageMedia reduceFps(ImageMedia imageMedia, int fpsReductionRatio) throws UnsupportedFileFormatException {
+        requireAnimated(imageMedia, REDUCE_FPS_STATIC_IMAGE_ERROR);
+        return MediaCompression.removeFrames(imageMedia, fpsReductionRatio);
     }
 
     @Override
@@ -835,15 +952,32 @@ public class ImageManipulator implements MediaManipulator {
         return applyToEachFrame(media, fileFormat, image -> ImageUtil.rotate(image, degrees, null, null, backgroundColor), "rotated");
     }
 
-    @SuppressWarnings("UnusedAssignment")
+    public ImageMedia rotate(ImageMedia imageMedia, float degrees, @Nullable Color backgroundColor) {
+        return applyToEachFrame(imageMedia, image -> ImageUtil.rotate(image, degrees, null, null, backgroundColor));
+    }
+
     @Override
     public File spin(File media, String fileFormat, float speed, @Nullable Color backgroundColor) throws IOException {
-        ImageMedia image = ImageReaders.read(media, fileFormat, BufferedImage.TYPE_INT_ARGB);
-        List<BufferedImage> keptImages = image.toNormalisedImages();
+        try (ImageMedia image = ImageReaders.read(media, fileFormat, BufferedImage.TYPE_INT_ARGB)) {
+            File outputFile = FileUtil.getUniqueTempFile("spun.gif");
+            ImageWriters.write(spin(image, speed, backgroundColor), outputFile, "gif");
+            return outputFile;
+        }
+    }
 
-        image = null;
+    /**
+     * Spins an image. Frames that do not have an alpha channel are
+     * converted to ARGB so that the corners of the rotated frames are transparent.
+     *
+     * @param image           The image to spin.
+     * @param speed           The spin speed. Negative speeds spin anticlockwise.
+     * @param backgroundColor The background colour of the rotated frames. Can be null.
+     * @return The spinning image.
+     */
+    public ImageMedia spin(ImageMedia image, float speed, @Nullable Color backgroundColor) {
+        FrameTimeline timeline = FrameTimeline.of(image).nonEmpty();
 
-        BufferedImage firstFrame = keptImages.get(0);
+        BufferedImage firstFrame = image.getFirstImage();
 
         int maxDimension = Math.max(firstFrame.getWidth(), firstFrame.getHeight());
         float absoluteSpeed = Math.abs(speed);
@@ -853,42 +987,28 @@ public class ImageManipulator implements MediaManipulator {
             framesPerRotation = Math.max((int) (framesPerRotation / absoluteSpeed), 1);
         }
 
-        int size = framesPerRotation * ((keptImages.size() + (framesPerRotation - 1)) / framesPerRotation);
-        Map<Integer, Frame> indexedFrames = new LinkedHashMap<>(size);
-        for (int i = 0; i < size; i++) {
-            int duration = Frame.GIF_MINIMUM_FRAME_DURATION;
-            if (absoluteSpeed < 1) {
-                duration /= absoluteSpeed;
-            }
-
-            indexedFrames.put(i, new AwtFrame(keptImages.get(i % keptImages.size()), duration));
+        int duration = Frame.GIF_MINIMUM_FRAME_DURATION;
+        if (absoluteSpeed < 1) {
+            duration /= absoluteSpeed;
         }
 
-        keptImages = null;
+        int size = framesPerRotation * ((timeline.getSlotCount() + (framesPerRotation - 1)) / framesPerRotation);
 
         final int finalFramesPerRotation = framesPerRotation;
-        List<Frame> rotatedFrames = indexedFrames.entrySet().parallelStream().map(frameEntry -> {
-            float index = frameEntry.getKey();
-            Frame originalFrame = frameEntry.getValue();
-            BufferedImage originalImage = originalFrame.getImage();
-            float angle = 360 * (index / finalFramesPerRotation);
+        final int finalDuration = duration;
+        List<Frame> rotatedFrames = IntStream.range(0, size).parallel().<Frame>mapToObj(index -> {
+            int frameIndex = timeline.frameAt(index % timeline.getSlotCount());
+            BufferedImage originalImage = ImageUtil.convertType(image.getFrame(frameIndex).getImage(), BufferedImage.TYPE_INT_ARGB);
+            float angle = 360 * ((float) index / finalFramesPerRotation);
 
             if (speed < 0) {
                 angle = -angle;
             }
 
             BufferedImage rotatedImage = ImageUtil.rotate(originalImage, angle, maxDimension, maxDimension, backgroundColor);
-            Frame frame = new AwtFrame(rotatedImage, originalFrame.getDuration());
-            originalFrame.flush();
-            return frame;
+            return new AwtFrame(rotatedImage, finalDuration);
         }).collect(ImmutableList.toImmutableList());
-        ImageMedia rotatedImage = ImageMediaBuilder.fromCollection(rotatedFrames);
-
-        File outputFile = FileUtil.getUniqueTempFile("spun.gif");
-
-        ImageWriters.write(rotatedImage, outputFile, "gif");
-
-        return outputFile;
+        return ImageMediaBuilder.fromCollection(rotatedFrames);
     }
 
     @Override
@@ -901,8 +1021,9 @@ public class ImageManipulator implements MediaManipulator {
             if (justRenameFile) {
                 Files.move(media.toPath(), gifFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
             } else {
-                ImageMedia nonGifImage = ImageReaders.read(media, fileFormat, BufferedImage.TYPE_INT_ARGB);
-                ImageWriters.write(nonGifImage, gifFile, "gif");
+                try (ImageMedia nonGifImage = ImageReaders.read(media, fileFormat, BufferedImage.TYPE_INT_ARGB)) {
+                    ImageWriters.write(nonGifImage, gifFile, "gif");
+                }
             }
 
             return gifFile;
@@ -912,40 +1033,78 @@ public class ImageManipulator implements MediaManipulator {
     @Override
     public File makePngAndTransparent(File media, String fileFormat) throws IOException {
         File pngFile = FileUtil.getUniqueTempFile(FileUtil.changeExtension(media.getName(), "png"));
-        ImageMedia imageMedia = ImageReaders.read(media, fileFormat, BufferedImage.TYPE_INT_ARGB);
-        ImageWriters.write(imageMedia, pngFile, "png");
+        try (ImageMedia imageMedia = ImageReaders.read(media, fileFormat, BufferedImage.TYPE_INT_ARGB)) {
+            ImageWriters.write(imageMedia, pngFile, "png");
+        }
         return pngFile;
     }
 
     @Override
     public File makeIco(File media, String fileFormat) throws IOException {
         File icoFile = FileUtil.getUniqueTempFile(FileUtil.changeExtension(media.getName(), "ico"));
-        ImageMedia imageMedia = ImageReaders.read(media, fileFormat, null);
-        ImageWriters.write(imageMedia, icoFile, "ico");
+        try (ImageMedia imageMedia = ImageReaders.read(media, fileFormat, null)) {
+            ImageWriters.write(imageMedia, icoFile, "ico");
+        }
         return icoFile;
     }
 
+    /**
+     * Compresses an image so that it fits within the upload size limit.
+     * The resize and frame removal needed are estimated up front so that the
+     * image is usually only encoded once, with at most one corrective encode if the estimate was too low.
+     * If the image still doesn't fit after that, the corrected file is returned as is.
+     */
     @Override
     public File compress(File media, String fileFormat, @Nullable Guild guild) throws IOException {
-        if (media.length() > DiscordUtil.getMaxUploadSize(guild)) {
-            boolean reduceResolution = true;
-            while (media.length() > DiscordUtil.getMaxUploadSize(guild)) {
-                if (reduceResolution || !ANIMATED_IMAGE_FORMATS.contains(fileFormat)) {
-                    media = resize(media, fileFormat, 0.75F, false, false);
-                } else {
-                    media = reduceFps(media, fileFormat, 2, false);
-                }
-
-                BufferedImage image = ImageReaders.read(media, fileFormat, null).getFirstImage();
-                if (image.getWidth() <= DiscordUtil.DISCORD_MAX_DISPLAY_WIDTH || image.getHeight() <= DiscordUtil.DISCORD_MAX_DISPLAY_HEIGHT) {
-                    reduceResolution = !reduceResolution;
-                }
-                image.flush();
+        long maxSize = DiscordUtil.getMaxUploadSize(guild);
+        if (media.length() > maxSize) {
+            try (ImageMedia imageMedia = ImageReaders.read(media, fileFormat, null)) {
+                return compress(imageMedia, media, fileFormat, maxSize);
             }
+        } else {
+            return media;
+        }
+    }
 
+    /**
+     * Compresses an already decoded image.
+     *
+     * @param imageMedia The decoded image.
+     * @param media      The file the image was encoded to.
+     * @param fileFormat The image format of the file.
+     * @param maxSize    The maximum size of the compressed file in bytes.
+     * @return The compressed file.
+     * @throws IOException If an error occurs while compressing the image.
+     */
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    private File compress(ImageMedia imageMedia, File media, String fileFormat, long maxSize) throws IOException {
+        boolean animatedFormat = ANIMATED_IMAGE_FORMATS.contains(fileFormat.toLowerCase());
+        MediaCompression.CompressionPlan plan = MediaCompression.planCompression(imageMedia, fileFormat, media.length(), maxSize, animatedFormat);
+        File compressed = applyCompressionPlan(imageMedia, media, fileFormat, plan);
+
+        if (compressed.length() > maxSize) {
+            try {
+                plan = plan.correct(imageMedia, compressed.length(), maxSize, animatedFormat);
+                return applyCompressionPlan(imageMedia, media, fileFormat, plan);
+            } finally {
+                compressed.delete();
+            }
+        } else {
+            return compressed;
         }
+    }
+
+    private static File applyCompressionPlan(ImageMedia imageMedia, File media, String fileFormat, MediaCompression.CompressionPlan plan) throws IOException {
+        ImageMedia keptFrames = plan.frameRatio() > 1 ? MediaCompression.removeFrames(imageMedia, plan.frameRatio()) : imageMedia;
 
-        return media;
+        Iterator<Frame> resizedFrames = CollectionUtil.parallelMapOrdered(keptFrames.iterator(), frame -> {
+            BufferedImage resizedImage = plan.scale() < 1 ? ImageUtil.resize(frame.getImage(), plan.scale(), false) : frame.getImage();
+            return new AwtFrame(resizedImage, frame.getDuration());
+        }, Runtime.getRuntime().availableProcessors(), CommandScheduler.getCpuExecutor());
+
+        File output = FileUtil.getUniqueTempFile(media.getName());
+        ImageWriters.write(resizedFrames, output, fileFormat);
+        return output;
     }
 
     @Override
@@ -955,34 +1114,61 @@ public class ImageManipulator implements MediaManipulator {
         return CollectionUtil.intersection(readerFormats, writerFormats);
     }
 
-    private static BufferedImage drawOnImage(BufferedImage image, ContainerImageInfo containerImageInfo, Drawable drawable, int textX, int textY, float fontSize) throws IOException {
+    /**
+     * Renders a drawable onto a transparent layer the size of the image it will be composited onto,
+     * so that the drawable is only rasterised once no matter how many frames it is drawn on.
+     * The layer is cropped to the pixels that were drawn on.
+     *
+     * @param width              The width of the image.
+     * @param height             The height of the image.
+     * @param containerImageInfo The container information.
+     * @param contentClip        The area to draw the drawable in, or null to draw it anywhere.
+     * @param drawable           The drawable to render.
+     * @param textX              The x coordinate of the top left corner of the drawable.
+     * @param textY              The y coordinate of the top left corner of the drawable.
+     * @param fontSize           The font size to render text in.
+     * @param frameIndex         The index of the frame of the drawable to render.
+     * @return The rendered layer.
+     */
+    private static TextOverlay renderTextOverlay(int width, int height, ContainerImageInfo containerImageInfo, @Nullable Shape contentClip, Drawable drawable, int textX, int textY, float fontSize, int frameIndex) {
+        BufferedImage overlay = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = overlay.createGraphics();
+
+        Font font = containerImageInfo.getFont().deriveFont(fontSize);
+        graphics.setFont(font);
+        ImageUtil.configureTextDrawQuality(graphics);
+        graphics.setColor(containerImageInfo.getTextColor());
+        if (contentClip != null) {
+            graphics.setClip(contentClip);
+        }
+
+        drawable.draw(graphics, textX, textY, frameIndex);
+        graphics.dispose();
+
+        return ImageUtil.getNonTransparentBounds(overlay)
+                .map(bounds -> new TextOverlay(overlay.getSubimage(bounds.x, bounds.y, bounds.width, bounds.height), bounds.x, bounds.y))
+                .orElse(new TextOverlay(null, 0, 0));
+    }
+
+    private static BufferedImage drawOnImage(BufferedImage image, ContainerImageInfo containerImageInfo, @Nullable Shape contentClip, TextOverlay overlay) {
         BufferedImage imageWithText = new BufferedImage(image.getWidth(), image.getHeight(), ImageUtil.getType(image));
         Graphics2D graphics = imageWithText.createGraphics();
 
-        Optional<Shape> contentClipOptional = containerImageInfo.getContentClip();
         containerImageInfo.getFill().ifPresent(color -> {
             graphics.setColor(color);
-            contentClipOptional.ifPresentOrElse(
-                    graphics::fill,
-                    () -> graphics.fillRect(0, 0, imageWithText.getWidth(), imageWithText.getHeight())
-            );
+            if (contentClip == null) {
+                graphics.fillRect(0, 0, imageWithText.getWidth(), imageWithText.getHeight());
+            } else {
+                graphics.fill(contentClip);
+            }
         });
 
         if (containerImageInfo.isBackground()) {
             graphics.drawImage(image, 0, 0, null);
         }
 
-        Font font = containerImageInfo.getFont().deriveFont(fontSize);
-        graphics.setFont(font);
-        ImageUtil.configureTextDrawQuality(graphics);
-        graphics.setColor(containerImageInfo.getTextColor());
-
-        contentClipOptional.ifPresent(graphics::setClip);
-
-        drawable.draw(graphics, textX, textY);
-
-        if (contentClipOptional.isPresent()) {
-            graphics.setClip(null);
+        if (overlay.image() != null) {
+            graphics.drawImage(overlay.image(), overlay.x(), overlay.y(), null);
         }
 
         if (!containerImageInfo.isBackground()) {
@@ -994,8 +1180,21 @@ public class ImageManipulator implements MediaManipulator {
         return imageWithText;
     }
 
+    /**
+     * Rendered text, positioned on the image it will be composited onto.
+     *
+     * @param image The rendered text, or null if nothing was drawn.
+     * @param x     The x coordinate of the top left corner of the rendered text.
+     * @param y     The y coordinate of the top left corner of the rendered text.
+     */
+    private record TextOverlay(@Nullable BufferedImage image, int x, int y) {
+    }
+
     /**
      * Applies the given operation to the given image based file.
+     * Frames are read, transformed and written one at a time, with only a
+     * bounded number of frames being processed in parallel, so the whole
+     * image does not have to be held in memory at once.
      *
      * @param media         The image based file to apply the operation to.
      * @param imageFormat   The image format of the file.
@@ -1005,15 +1204,15 @@ public class ImageManipulator implements MediaManipulator {
      * @throws IOException If an error occurs while applying the operation.
      */
     private static File applyToEachFrame(File media, String imageFormat, Function<BufferedImage, BufferedImage> operation, @Nullable String operationName) throws IOException {
-        ImageMedia imageMedia = ImageReaders.read(media, imageFormat, null);
+        Iterator<Frame> frames = ImageReaders.readFrames(media, imageFormat, null);
 
-        ImageMedia outputImage = ImageMediaBuilder.fromCollection(imageMedia.parallelStream().map(frame -> {
+        Iterator<Frame> outputFrames = CollectionUtil.parallelMapOrdered(frames, frame -> {
             BufferedImage unmodifiedImage = frame.getImage();
             BufferedImage modifiedImage = operation.apply(unmodifiedImage);
             int duration = frame.getDuration();
             frame.flush();
             return new AwtFrame(modifiedImage, duration);
-        }).collect(ImmutableList.toImmutableList()));
+        }, Runtime.getRuntime().availableProcessors(), CommandScheduler.getCpuExecutor());
 
         String outputName;
         if (operationName == null) {
@@ -1023,15 +1222,29 @@ public class ImageManipulator implements MediaManipulator {
         }
 
         File output = FileUtil.getUniqueTempFile(outputName);
-        ImageWriters.write(outputImage, output, imageFormat);
+        ImageWriters.write(outputFrames, output, imageFormat);
 
         return output;
     }
 
+    /**
+     * Applies the given operation to each frame of an image.
+     *
+     * @param imageMedia The image to apply the operation to.
+     * @param operation  The operation to apply.
+     * @return The resulting image.
+     */
+    private static ImageMedia applyToEachFrame(ImageMedia imageMedia, Function<BufferedImage, BufferedImage> operation) {
+        return ImageMediaBuilder.fromCollection(imageMedia.parallelStream().map(frame -> {
+            BufferedImage modifiedImage = operation.apply(frame.getImage());
+            return new AwtFrame(modifiedImage, frame.getDuration());
+        }).collect(ImmutableList.toImmutableList()));
+    }
+
     private static class EmptyDrawable implements Drawable {
 
         @Override
-        public void draw(Graphics2D graphics, int x, int y) {
+        public void draw(Graphics2D graphics, int x, int y, int frameIndex) {
 
         }
 
@@ -1061,7 +1274,7 @@ public class ImageManipulator implements MediaManipulator {
         }
 
         @Override
-        public boolean sameAsPreviousFrame() {
+        public boolean sameAsPreviousFrame(int frameIndex) {
             return false;
         }
     }
@@ -0,0 +1,32 @@
+package io.github.shaksternano.mediamanipulator.mediamanipulator;
+
+import io.github.shaksternano.mediamanipulator.image.imagemedia.ImageMedia;
+
+import java.io.IOException;
+
+/**
+ * An operation on decoded image media. Operations can be chained with {@link #andThen(ImageMediaOperation)}
+ * so that several edits share a single decode and a single encode.
+ */
+@FunctionalInterface
+public interface ImageMediaOperation {
+
+    /**
+     * Applies this operation.
+     *
+     * @param imageMedia The image media to apply the operation to.
+     * @return The resulting image media. This may be the same instance as the input if the operation changed nothing.
+     * @throws IOException If an error occurs while applying the operation.
+     */
+    ImageMedia apply(ImageMedia imageMedia) throws IOException;
+
+    /**
+     * Creates an operation that applies this operation, then applies another operation to the result.
+     *
+     * @param after The operation to apply after this one.
+     * @return The combined operation.
+     */
+    default ImageMediaOperation andThen(ImageMediaOperation after) {
+        return imageMedia -> after.apply(apply(imageMedia));
+    }
+}
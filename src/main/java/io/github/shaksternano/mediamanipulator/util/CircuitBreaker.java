@@ -0,0 +1,62 @@
+package io.github.shaksternano.mediamanipulator.util;
+
+import java.time.Duration;
+
+/**
+ * Stops calls to a service that keeps failing or responding slowly, so that callers
+ * don't have to wait for it. After a number of consecutive failures the breaker opens,
+ * and calls are skipped until a cooldown has passed. The first call after the cooldown
+ * is let through as a trial, which closes the breaker if it succeeds.
+ */
+public class CircuitBreaker {
+
+    private final int FAILURE_THRESHOLD;
+    private final long COOLDOWN_NANOS;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean open = false;
+
+    /**
+     * Creates a new circuit breaker.
+     *
+     * @param failureThreshold The number of consecutive failures that opens the breaker.
+     * @param cooldown         How long the breaker stays open before a trial call is allowed.
+     */
+    public CircuitBreaker(int failureThreshold, Duration cooldown) {
+        FAILURE_THRESHOLD = failureThreshold;
+        COOLDOWN_NANOS = cooldown.toNanos();
+    }
+
+    /**
+     * Checks whether a call should be made. If the breaker is open and the cooldown has passed,
+     * the cooldown is restarted, so that only one trial call is let through at a time.
+     *
+     * @return Whether the call should be made.
+     */
+    public synchronized boolean allowCall() {
+        if (open) {
+            long now = System.nanoTime();
+            if (now - openedAt >= COOLDOWN_NANOS) {
+                openedAt = now;
+                return true;
+            } else {
+                return false;
+            }
+        } else {
+            return true;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        open = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (consecutiveFailures >= FAILURE_THRESHOLD) {
+            open = true;
+            openedAt = System.nanoTime();
+        }
+    }
+}
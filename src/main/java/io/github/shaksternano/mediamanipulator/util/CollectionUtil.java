@@ -4,6 +4,11 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Streams;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
@@ -62,4 +67,71 @@ public class CollectionUtil {
             return new ArrayList<>(collection);
         }
     }
+
+    /**
+     * Lazily maps the elements of an {@link Iterator} in parallel, keeping their original order.
+     * At most {@code parallelism} elements are taken from the iterator and not yet returned at any one time,
+     * so only a bounded number of elements are held in memory.
+     * If no thread of the executor has started mapping the next element by the time it is needed,
+     * the calling thread maps it instead. This means the executor can be the same pool the calling thread runs on.
+     *
+     * @param iterator    The iterator to map the elements of.
+     * @param mapper      The function to map each element with.
+     * @param parallelism The maximum number of elements to map at once.
+     * @param executor    The executor to map the elements on.
+     * @param <T>         The type of the elements of the iterator.
+     * @param <R>         The type of the mapped elements.
+     * @return An {@link Iterator} over the mapped elements.
+     */
+    public static <T, R> Iterator<R> parallelMapOrdered(Iterator<T> iterator, Function<T, R> mapper, int parallelism, Executor executor) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1!");
+        }
+
+        return new Iterator<>() {
+
+            private final Deque<FutureTask<R>> PENDING = new ArrayDeque<>(parallelism);
+
+            @Override
+            public boolean hasNext() {
+                fill();
+                return !PENDING.isEmpty();
+            }
+
+            @Override
+            public R next() {
+                fill();
+                FutureTask<R> task = PENDING.poll();
+                if (task == null) {
+                    throw new NoSuchElementException();
+                } else {
+                    // Does nothing if the task has already been started by the executor.
+                    task.run();
+                    try {
+                        return task.get();
+                    } catch (ExecutionException e) {
+                        if (e.getCause() instanceof RuntimeException runtimeException) {
+                            throw runtimeException;
+                        } else if (e.getCause() instanceof Error error) {
+                            throw error;
+                        } else {
+                            throw new IllegalStateException(e.getCause());
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CancellationException("Interrupted while waiting for an element to be mapped!");
+                    }
+                }
+            }
+
+            private void fill() {
+                while (PENDING.size() < parallelism && iterator.hasNext()) {
+                    T element = iterator.next();
+                    FutureTask<R> task = new FutureTask<>(() -> mapper.apply(element));
+                    PENDING.add(task);
+                    executor.execute(task);
+                }
+            }
+        };
+    }
 }
@@ -12,6 +12,21 @@ public class DiscordUtil {
     public static final int DISCORD_MAX_DISPLAY_WIDTH = 400;
     public static final int DISCORD_MAX_DISPLAY_HEIGHT = 300;
 
+    /**
+     * The smallest size the Discord CDN can resize images to.
+     */
+    public static final int MIN_CDN_IMAGE_SIZE = 16;
+
+    /**
+     * The largest size the Discord CDN can resize images to.
+     */
+    public static final int MAX_CDN_IMAGE_SIZE = 4096;
+
+    /**
+     * The size images are requested at when a link to them is sent, such as a user's profile picture.
+     */
+    public static final int LINKED_IMAGE_SIZE = 1024;
+
     public static long getMaxUploadSize(@Nullable Guild guild) {
         if (guild == null) {
             return Message.MAX_FILE_SIZE;
@@ -20,6 +35,40 @@ public class DiscordUtil {
         }
     }
 
+    /**
+     * Gets the URL of an image on the Discord CDN, resized to the smallest size the CDN
+     * supports that is at least as large as the given size. The CDN only supports
+     * powers of two from {@link #MIN_CDN_IMAGE_SIZE} to {@link #MAX_CDN_IMAGE_SIZE}.
+     *
+     * @param url         The URL of the image, without a size.
+     * @param minimumSize The size the image will be displayed or drawn at.
+     * @return The URL of the resized image.
+     */
+    public static String getCdnImageUrl(String url, int minimumSize) {
+        int size = MIN_CDN_IMAGE_SIZE;
+        while (size < minimumSize && size < MAX_CDN_IMAGE_SIZE) {
+            size *= 2;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "size=" + size;
+    }
+
+    /**
+     * Gets the URL of an emote's image, resized using {@link #getCdnImageUrl(String, int)}.
+     * Static emotes are always requested as PNGs, as WebP images can't be read.
+     *
+     * @param emote       The emote.
+     * @param minimumSize The size the emote will be drawn at.
+     * @return The URL of the emote's image.
+     */
+    public static String getEmoteUrl(Emote emote, int minimumSize) {
+        String url = emote.getImageUrl();
+        int extensionIndex = url.lastIndexOf('.');
+        if (!emote.isAnimated() && extensionIndex > url.lastIndexOf('/')) {
+            url = url.substring(0, extensionIndex) + ".png";
+        }
+        return getCdnImageUrl(url, minimumSize);
+    }
+
     @SuppressWarnings("ConstantConditions")
     public static String getContentStrippedKeepEmotes(Message message) {
         String displayMessage = message.getContentRaw();
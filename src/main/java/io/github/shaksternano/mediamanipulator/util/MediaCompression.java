@@ -5,14 +5,66 @@ import io.github.shaksternano.mediamanipulator.image.imagemedia.ImageMedia;
 import io.github.shaksternano.mediamanipulator.image.util.AwtFrame;
 import io.github.shaksternano.mediamanipulator.image.util.Frame;
 import io.github.shaksternano.mediamanipulator.image.util.ImageMediaBuilder;
+import io.github.shaksternano.mediamanipulator.image.util.ImageUtil;
+import io.github.shaksternano.mediamanipulator.io.FileUtil;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.MediaManipulator;
+import io.github.shaksternano.mediamanipulator.mediamanipulator.util.MediaManipulatorRegistry;
+import net.dv8tion.jda.api.entities.Guild;
+import org.jetbrains.annotations.Nullable;
 
+import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
 
 /**
  * Contains static methods for compressing media files.
  */
 public class MediaCompression {
 
+    /**
+     * The number of frames encoded to estimate the size of an encoded image.
+     */
+    private static final int SAMPLE_FRAME_COUNT = 3;
+
+    /**
+     * The fraction of the target size that compression aims for, leaving room for estimation error.
+     */
+    private static final double TARGET_SIZE_MARGIN = 0.9;
+
+    /**
+     * Compresses edited media so that it can be uploaded to a guild.
+     *
+     * @param editedMedia The edited media file. This is deleted if a new compressed file is created,
+     *                    or if compression fails.
+     * @param guild       The guild the media will be uploaded to.
+     * @return The compressed media file.
+     * @throws IOException If an error occurs while compressing the media.
+     */
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    public static File compress(File editedMedia, @Nullable Guild guild) throws IOException {
+        String fileFormat = FileUtil.getFileFormat(editedMedia);
+        Optional<MediaManipulator> manipulatorOptional = MediaManipulatorRegistry.getManipulator(fileFormat);
+        if (manipulatorOptional.isPresent()) {
+            File compressedMedia;
+            try {
+                compressedMedia = manipulatorOptional.orElseThrow().compress(editedMedia, fileFormat, guild);
+            } catch (Throwable t) {
+                editedMedia.delete();
+                throw t;
+            }
+
+            if (!compressedMedia.equals(editedMedia)) {
+                editedMedia.delete();
+            }
+            return compressedMedia;
+        } else {
+            return editedMedia;
+        }
+    }
+
     public static BufferedImage reduceToSize(BufferedImage image, int width, int height) {
         BufferedImage oldImage = image;
         image = ImmutableImage.wrapAwt(image).bound(width, height).awt();
@@ -40,4 +92,135 @@ public class MediaCompression {
             return imageMedia;
         }
     }
+
+    /**
+     * Plans how to compress an image so that it fits within a target file size,
+     * without repeatedly encoding the whole image. The encoded size at a given
+     * scale is estimated by encoding a few sampled frames at that scale, then
+     * calibrated against the size of the current file.
+     *
+     * @param imageMedia    The image to compress.
+     * @param format        The format the image is encoded in.
+     * @param currentSize   The current size of the encoded image in bytes.
+     * @param targetSize    The size in bytes that the compressed image should fit within.
+     * @param canDropFrames Whether frames can be removed to reduce the size.
+     * @return The compression plan.
+     * @throws IOException If an error occurs while encoding the sampled frames.
+     */
+    public static CompressionPlan planCompression(ImageMedia imageMedia, String format, long currentSize, long targetSize, boolean canDropFrames) throws IOException {
+        BufferedImage firstImage = imageMedia.getFirstImage();
+        int width = firstImage.getWidth();
+        int height = firstImage.getHeight();
+        int frameCount = imageMedia.getFrameCount();
+        double pixelCount = (double) width * height;
+
+        double originalBytesPerPixel = sampleBytesPerPixel(imageMedia, format, 1);
+        double calibration = originalBytesPerPixel > 0
+                ? currentSize / (originalBytesPerPixel * pixelCount * frameCount)
+                : 1;
+        double safeTargetSize = targetSize * TARGET_SIZE_MARGIN;
+
+        CompressionPlan bestPlan = null;
+        for (int frameRatio = 1; frameRatio == 1 || (canDropFrames && ceilDivide(frameCount, frameRatio) >= 2); frameRatio *= 2) {
+            int keptFrameCount = ceilDivide(frameCount, frameRatio);
+
+            float scale = 1;
+            double bytesPerPixel = originalBytesPerPixel;
+            // Smaller images compress less well, so the bytes per pixel is measured again at the first estimated scale.
+            for (int i = 0; i < 2; i++) {
+                double estimatedSize = calibration * bytesPerPixel * pixelCount * keptFrameCount;
+                scale = clampScale((float) Math.sqrt(safeTargetSize / estimatedSize), width, height);
+                if (scale >= 1) {
+                    break;
+                }
+                bytesPerPixel = sampleBytesPerPixel(imageMedia, format, scale);
+            }
+
+            bestPlan = new CompressionPlan(scale, frameRatio);
+            if (fillsDisplay(width, height, scale)) {
+                break;
+            }
+        }
+
+        return bestPlan;
+    }
+
+    /**
+     * Estimates the number of bytes each pixel takes up when a frame is encoded on its own,
+     * by encoding up to {@link #SAMPLE_FRAME_COUNT} evenly spaced frames.
+     */
+    private static double sampleBytesPerPixel(ImageMedia imageMedia, String format, float scale) throws IOException {
+        int sampleCount = Math.min(imageMedia.getFrameCount(), SAMPLE_FRAME_COUNT);
+        long totalBytes = 0;
+        long totalPixels = 0;
+        for (int i = 0; i < sampleCount; i++) {
+            BufferedImage image = imageMedia.getFrame(i * imageMedia.getFrameCount() / sampleCount).getImage();
+            BufferedImage scaled = scale < 1 ? ImageUtil.resize(image, scale, false) : image;
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            if (!ImageIO.write(scaled, format, outputStream)) {
+                return 0;
+            }
+
+            totalBytes += outputStream.size();
+            totalPixels += (long) scaled.getWidth() * scaled.getHeight();
+        }
+
+        return totalPixels == 0 ? 0 : (double) totalBytes / totalPixels;
+    }
+
+    private static boolean fillsDisplay(int width, int height, float scale) {
+        return width * scale >= Math.min(width, DiscordUtil.DISCORD_MAX_DISPLAY_WIDTH)
+                && height * scale >= Math.min(height, DiscordUtil.DISCORD_MAX_DISPLAY_HEIGHT);
+    }
+
+    private static float clampScale(float scale, int width, int height) {
+        float minimumScale = Math.max(1F / width, 1F / height);
+        return Math.max(Math.min(scale, 1), minimumScale);
+    }
+
+    private static int ceilDivide(int dividend, int divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    /**
+     * How to compress an image.
+     *
+     * @param scale      The multiplier to resize the image by.
+     * @param frameRatio Only every Nth frame is kept, where N is this ratio.
+     */
+    public record CompressionPlan(float scale, int frameRatio) {
+
+        /**
+         * Adjusts this plan after it produced a file that was still too large.
+         * Like {@link #planCompression(ImageMedia, String, long, long, boolean)}, frames are only
+         * removed once shrinking the image would make it smaller than the display size.
+         *
+         * @param imageMedia    The image that was compressed.
+         * @param actualSize    The size of the file produced with this plan.
+         * @param targetSize    The size that the file should fit within.
+         * @param canDropFrames Whether frames can be removed to reduce the size.
+         * @return The corrected plan.
+         */
+        public CompressionPlan correct(ImageMedia imageMedia, long actualSize, long targetSize, boolean canDropFrames) {
+            BufferedImage firstImage = imageMedia.getFirstImage();
+            int width = firstImage.getWidth();
+            int height = firstImage.getHeight();
+            int frameCount = imageMedia.getFrameCount();
+
+            double reduction = (double) targetSize / actualSize * TARGET_SIZE_MARGIN;
+            int correctedFrameRatio = frameRatio;
+            if (canDropFrames) {
+                while (!fillsDisplay(width, height, scale * (float) Math.sqrt(Math.min(reduction, 1)))
+                        && ceilDivide(frameCount, correctedFrameRatio * 2) >= 2
+                ) {
+                    reduction *= (double) ceilDivide(frameCount, correctedFrameRatio) / ceilDivide(frameCount, correctedFrameRatio * 2);
+                    correctedFrameRatio *= 2;
+                }
+            }
+
+            float correctedScale = clampScale(scale * (float) Math.sqrt(Math.min(reduction, 1)), width, height);
+            return new CompressionPlan(correctedScale, correctedFrameRatio);
+        }
+    }
 }
@@ -0,0 +1,150 @@
+package io.github.shaksternano.mediamanipulator.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import io.github.shaksternano.mediamanipulator.Main;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageChannel;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the most recent messages of each channel in memory as they arrive, so that commands
+ * can look through previous messages without retrieving the channel history from Discord.
+ * The history is only retrieved from Discord the first time a channel is looked through,
+ * to fill in the messages sent before the bot started. Channels that haven't been active
+ * for a while are evicted.
+ */
+public class MessageHistory {
+
+    /**
+     * The maximum number of messages kept for each channel.
+     */
+    public static final int MAX_MESSAGES_PER_CHANNEL = 50;
+
+    private static final Cache<Long, ChannelHistory> CHANNEL_HISTORIES = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    /**
+     * Adds a message that was just sent to the history of its channel.
+     *
+     * @param message The message.
+     */
+    public static void addMessage(Message message) {
+        getChannelHistory(message.getChannel().getIdLong()).add(message);
+    }
+
+    /**
+     * Replaces a message in the history of its channel with its edited version.
+     *
+     * @param message The edited message.
+     */
+    public static void updateMessage(Message message) {
+        ChannelHistory history = CHANNEL_HISTORIES.getIfPresent(message.getChannel().getIdLong());
+        if (history != null) {
+            history.update(message);
+        }
+    }
+
+    /**
+     * Removes a deleted message from the history of its channel.
+     *
+     * @param channelId The ID of the channel.
+     * @param messageId The ID of the deleted message.
+     */
+    public static void removeMessage(long channelId, long messageId) {
+        ChannelHistory history = CHANNEL_HISTORIES.getIfPresent(channelId);
+        if (history != null) {
+            history.remove(messageId);
+        }
+    }
+
+    /**
+     * Gets the previous messages in a channel, newest first.
+     *
+     * @param channel The channel to get the previous messages from.
+     * @param amount  The amount of messages to get, up to {@link #MAX_MESSAGES_PER_CHANNEL}.
+     * @return A list of messages. If an error occurred while retrieving the history from Discord,
+     * only the messages received since the bot started are returned.
+     */
+    public static List<Message> getPreviousMessages(MessageChannel channel, int amount) {
+        ChannelHistory history = getChannelHistory(channel.getIdLong());
+        if (!history.isComplete()) {
+            try {
+                history.addRetrieved(channel.getHistory().retrievePast(MAX_MESSAGES_PER_CHANNEL).complete());
+            } catch (RuntimeException e) {
+                Main.getLogger().error("Error while retrieving previous messages", e);
+            }
+        }
+
+        return history.getMessages(amount);
+    }
+
+    private static ChannelHistory getChannelHistory(long channelId) {
+        try {
+            return CHANNEL_HISTORIES.get(channelId, ChannelHistory::new);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A bounded buffer of the most recent messages in a channel, newest first.
+     */
+    private static class ChannelHistory {
+
+        private final Deque<Message> MESSAGES = new ArrayDeque<>(MAX_MESSAGES_PER_CHANNEL);
+        private boolean complete = false;
+
+        private synchronized void add(Message message) {
+            MESSAGES.addFirst(message);
+            if (MESSAGES.size() > MAX_MESSAGES_PER_CHANNEL) {
+                MESSAGES.removeLast();
+                complete = true;
+            }
+        }
+
+        private synchronized void update(Message message) {
+            List<Message> messages = MESSAGES.stream()
+                    .map(oldMessage -> oldMessage.getIdLong() == message.getIdLong() ? message : oldMessage)
+                    .toList();
+            MESSAGES.clear();
+            MESSAGES.addAll(messages);
+        }
+
+        private synchronized void remove(long messageId) {
+            MESSAGES.removeIf(message -> message.getIdLong() == messageId);
+        }
+
+        /**
+         * Merges the messages retrieved from Discord with the ones that have already been received.
+         */
+        private synchronized void addRetrieved(List<Message> retrievedMessages) {
+            Set<Long> messageIds = new HashSet<>();
+            List<Message> merged = Stream.concat(MESSAGES.stream(), retrievedMessages.stream())
+                    .filter(message -> messageIds.add(message.getIdLong()))
+                    .sorted(Comparator.comparingLong(Message::getIdLong).reversed())
+                    .limit(MAX_MESSAGES_PER_CHANNEL)
+                    .toList();
+            MESSAGES.clear();
+            MESSAGES.addAll(merged);
+            complete = true;
+        }
+
+        private synchronized boolean isComplete() {
+            return complete;
+        }
+
+        private synchronized List<Message> getMessages(int amount) {
+            return MESSAGES.stream()
+                    .limit(amount)
+                    .collect(ImmutableList.toImmutableList());
+        }
+    }
+}
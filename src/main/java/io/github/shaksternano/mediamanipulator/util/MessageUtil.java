@@ -1,34 +1,26 @@
 package io.github.shaksternano.mediamanipulator.util;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import io.github.shaksternano.mediamanipulator.Main;
+import io.github.shaksternano.mediamanipulator.emoji.EmojiCache;
 import io.github.shaksternano.mediamanipulator.emoji.EmojiUtil;
 import io.github.shaksternano.mediamanipulator.graphics.drawable.Drawable;
-import io.github.shaksternano.mediamanipulator.graphics.drawable.ImageDrawable;
-import io.github.shaksternano.mediamanipulator.image.imagemedia.ImageMedia;
-import io.github.shaksternano.mediamanipulator.image.reader.util.ImageReaders;
-import io.github.shaksternano.mediamanipulator.image.util.ImageUtil;
+import io.github.shaksternano.mediamanipulator.io.DownloadedMedia;
 import io.github.shaksternano.mediamanipulator.io.FileUtil;
 import net.dv8tion.jda.api.entities.Emote;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.MessageChannel;
 import net.dv8tion.jda.api.entities.MessageEmbed;
+import org.jetbrains.annotations.Nullable;
 
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URL;
 import java.util.*;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -51,20 +43,40 @@ public class MessageUtil {
      * @return An {@link Optional} describing the file.
      */
     public static Optional<File> downloadFile(Message message, String directory) {
+        Optional<DownloadedMedia> mediaOptional = downloadMedia(message, directory);
+        if (mediaOptional.isPresent()) {
+            try {
+                return Optional.of(mediaOptional.orElseThrow().getFile());
+            } catch (IOException e) {
+                Main.getLogger().error("Error writing downloaded media to a file!", e);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Downloads media, keeping it in memory if it's small enough.
+     *
+     * @param message   The message to download the media from.
+     * @param directory The directory of the file that the media is downloaded to, or written to when it's needed as a file.
+     * @return An {@link Optional} describing the media.
+     */
+    public static Optional<DownloadedMedia> downloadMedia(Message message, String directory) {
         return processMessages(message, messageToProcess -> {
-            Optional<File> fileOptional = downloadAttachment(messageToProcess, directory);
-            if (fileOptional.isPresent()) {
-                return fileOptional;
+            Optional<DownloadedMedia> mediaOptional = downloadAttachment(messageToProcess, directory);
+            if (mediaOptional.isPresent()) {
+                return mediaOptional;
             } else {
                 List<String> urls = StringUtil.extractUrls(messageToProcess.getContentRaw());
                 if (!urls.isEmpty()) {
-                    fileOptional = FileUtil.downloadFile(urls.get(0), directory);
-                    if (fileOptional.isPresent()) {
-                        return fileOptional;
+                    mediaOptional = FileUtil.downloadMedia(urls.get(0), directory);
+                    if (mediaOptional.isPresent()) {
+                        return mediaOptional;
                     } else {
-                        fileOptional = downloadEmbedImage(messageToProcess, directory);
-                        if (fileOptional.isPresent()) {
-                            return fileOptional;
+                        mediaOptional = downloadEmbedImage(messageToProcess, directory);
+                        if (mediaOptional.isPresent()) {
+                            return mediaOptional;
                         }
                     }
                 }
@@ -121,20 +133,14 @@ public class MessageUtil {
     }
 
     /**
-     * Gets the previous messages in the channel.
+     * Gets the previous messages in the channel from the {@link MessageHistory}.
      *
      * @param channel The channel to get the previous messages from.
      * @param amount  The amount of messages to get.
      * @return A list of messages. If an error occurred, an empty list is returned.
      */
     public static List<Message> getPreviousMessages(MessageChannel channel, int amount) {
-        try {
-            return channel.getHistory().retrievePast(amount).complete();
-        } catch (RuntimeException e) {
-            Main.getLogger().error("Error while retrieving previous messages", e);
-        }
-
-        return ImmutableList.of();
+        return MessageHistory.getPreviousMessages(channel, amount);
     }
 
     /**
@@ -142,20 +148,18 @@ public class MessageUtil {
      *
      * @param message   The message to download the image from.
      * @param directory The directory to download the image to.
-     * @return An {@link Optional} describing the image file.
+     * @return An {@link Optional} describing the image.
      */
-    private static Optional<File> downloadAttachment(Message message, String directory) {
+    private static Optional<DownloadedMedia> downloadAttachment(Message message, String directory) {
         List<Message.Attachment> attachments = message.getAttachments();
 
         for (Message.Attachment attachment : attachments) {
             File imageFile = FileUtil.getUniqueFile(directory, attachment.getFileName());
 
             try {
-                return Optional.of(attachment.getProxy().downloadToFile(imageFile).get(10, TimeUnit.SECONDS));
-            } catch (ExecutionException | InterruptedException e) {
+                return Optional.of(FileUtil.downloadMedia(attachment.getUrl(), imageFile));
+            } catch (IOException e) {
                 Main.getLogger().error("Error downloading image!", e);
-            } catch (TimeoutException e) {
-                Main.getLogger().error("Image took too long to download!", e);
             }
         }
 
@@ -167,16 +171,16 @@ public class MessageUtil {
      *
      * @param message   The message containing the embed to download the image from.
      * @param directory The directory to download the image to.
-     * @return An {@link Optional} describing the image file.
+     * @return An {@link Optional} describing the image.
      */
-    private static Optional<File> downloadEmbedImage(Message message, String directory) {
+    private static Optional<DownloadedMedia> downloadEmbedImage(Message message, String directory) {
         List<MessageEmbed> embeds = message.getEmbeds();
 
         for (MessageEmbed embed : embeds) {
             MessageEmbed.ImageInfo imageInfo = embed.getImage();
 
             if (imageInfo != null) {
-                return FileUtil.downloadFile(imageInfo.getUrl(), directory);
+                return FileUtil.downloadMedia(imageInfo.getUrl(), directory);
             }
         }
 
@@ -197,13 +201,26 @@ public class MessageUtil {
     }
 
     public static Map<String, String> getEmojiUrls(Message message, boolean onlyGetFirst) {
+        return getEmojiUrls(message, onlyGetFirst, null);
+    }
+
+    /**
+     * Gets the image URLs of the emojis in a message.
+     *
+     * @param message      The message.
+     * @param onlyGetFirst Whether to only get the first emoji.
+     * @param emoteSize    The size custom emotes will be drawn at, used to request them from the Discord CDN
+     *                     at a smaller size. If null, custom emotes are requested at their full size.
+     * @return A map of the emoji codes to their image URLs.
+     */
+    private static Map<String, String> getEmojiUrls(Message message, boolean onlyGetFirst, @Nullable Integer emoteSize) {
         ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
         String messageContent = message.getContentRaw();
 
         // Get custom emojis.
         List<Emote> emotes = message.getMentions().getEmotes();
         for (Emote emote : emotes) {
-            builder.put(emote.getAsMention(), emote.getImageUrl());
+            builder.put(emote.getAsMention(), getEmoteUrl(emote, emoteSize));
             if (onlyGetFirst) {
                 return builder.build();
             }
@@ -216,7 +233,7 @@ public class MessageUtil {
             if (!emoteNames.contains(emoteName)) {
                 String emoteColonName = ":" + emote.getName() + ":";
                 if (messageContent.contains(emoteColonName)) {
-                    builder.put(emoteColonName, emote.getImageUrl());
+                    builder.put(emoteColonName, getEmoteUrl(emote, emoteSize));
                     if (onlyGetFirst) {
                         return builder.build();
                     }
@@ -300,21 +317,27 @@ public class MessageUtil {
         return Optional.empty();
     }
 
-    public static Map<String, Drawable> getNonTextParts(Message message) {
-        Map<String, String> imageUrls = MessageUtil.getEmojiUrls(message);
+    private static String getEmoteUrl(Emote emote, @Nullable Integer size) {
+        return size == null ? emote.getImageUrl() : DiscordUtil.getEmoteUrl(emote, size);
+    }
+
+    /**
+     * Gets the emojis and emotes in a message as {@link Drawable}s, so that they can be drawn with text.
+     * Custom emotes are requested at the smallest size the Discord CDN supports that is at least
+     * as tall as a line of the text.
+     *
+     * @param message    The message to get the emojis and emotes from.
+     * @param lineHeight The tallest a line of the text can be, such as the font size the text starts at.
+     * @return A map of the emoji and emote codes to their drawables.
+     */
+    public static Map<String, Drawable> getNonTextParts(Message message, int lineHeight) {
+        Map<String, String> imageUrls = getEmojiUrls(message, false, lineHeight);
         return imageUrls.entrySet().parallelStream().map(imageUrlEntry -> {
             try {
                 String emojiCode = imageUrlEntry.getKey();
                 String emojiImageUrl = imageUrlEntry.getValue();
-                URL url = new URL(emojiImageUrl);
-                String imageType = ImageUtil.getImageFormat(url);
-
-                try (InputStream inputStream = url.openStream()) {
-                    ImageMedia imageMedia = ImageReaders.read(inputStream, imageType, null);
-                    List<BufferedImage> normalisedImages = imageMedia.toNormalisedImages();
-                    Drawable drawable = new ImageDrawable(normalisedImages);
-                    return Maps.immutableEntry(emojiCode, drawable);
-                }
+                Drawable drawable = EmojiCache.getDrawable(emojiImageUrl);
+                return Maps.immutableEntry(emojiCode, drawable);
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
             }
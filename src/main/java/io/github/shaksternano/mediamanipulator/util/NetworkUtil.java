@@ -1,16 +1,44 @@
 package io.github.shaksternano.mediamanipulator.util;
 
 import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 
-import java.io.*;
-import java.net.ConnectException;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 public class NetworkUtil {
 
+    /**
+     * The shared HTTP client. It pools connections, so repeated requests
+     * to the same host reuse the same connection instead of opening a new one.
+     */
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Gets the shared HTTP client.
+     *
+     * @return The shared HTTP client.
+     */
+    public static HttpClient getHttpClient() {
+        return HTTP_CLIENT;
+    }
+
     /**
      * Construct and run a GET request.
      *
@@ -18,58 +46,65 @@ public class NetworkUtil {
      * @return The response as a {@link JsonElement}.
      */
     public static JsonElement httpGet(String url) {
-        HttpURLConnection connection = null;
-        try {
-            // Get request
-            connection = (HttpURLConnection) new URL(url).openConnection();
-            connection.setDoInput(true);
-            connection.setDoOutput(true);
-            connection.setRequestMethod("GET");
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setRequestProperty("Accept", "application/json");
-            connection.setRequestProperty("Content-Type", "application/json; charset=UTF-8");
+        return httpGet(url, DEFAULT_REQUEST_TIMEOUT);
+    }
 
-            // Handle failure
-            int statusCode = connection.getResponseCode();
-            if (statusCode != HttpURLConnection.HTTP_OK && statusCode != HttpURLConnection.HTTP_CREATED) {
-                String error = String.format("HTTP Code: '%1$s' from '%2$s'", statusCode, url);
-                throw new ConnectException(error);
-            }
+    /**
+     * Construct and run a GET request, parsing the response as it is received.
+     *
+     * @param url     The URL to request.
+     * @param timeout The maximum time to wait for the response.
+     * @return The response as a {@link JsonElement}, or {@link JsonUtil#EMPTY}
+     * if the request failed or the response wasn't valid JSON.
+     */
+    public static JsonElement httpGet(String url, Duration timeout) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(timeout)
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+            HttpResponse<InputStream> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofInputStream());
 
-            // Parse response
-            return parser(connection);
-        } catch (Exception ignored) {
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
+            try (Reader reader = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
+                int statusCode = response.statusCode();
+                if (statusCode == 200 || statusCode == 201) {
+                    return JsonParser.parseReader(reader);
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalArgumentException | JsonParseException ignored) {
         }
 
         return JsonUtil.EMPTY;
     }
 
     /**
-     * Parse the response into JSONObject.
+     * Construct and run a GET request, reading the whole response body.
      *
-     * @param connection The connection to parse.
-     * @return The response as a {@link JsonElement}.
+     * @param url The URL to request.
+     * @return The response body.
+     * @throws IOException If the request failed or the response status code wasn't 200.
      */
-    private static JsonElement parser(HttpURLConnection connection) {
-        char[] buffer = new char[1024 * 4];
-        int characterCount;
-
-        try (InputStream stream = new BufferedInputStream(connection.getInputStream())) {
-            InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8);
-            StringWriter writer = new StringWriter();
-
-            while (-1 != (characterCount = reader.read(buffer))) {
-                writer.write(buffer, 0, characterCount);
+    public static byte[] httpGetBytes(String url) throws IOException {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(DEFAULT_REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            HttpResponse<byte[]> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            int statusCode = response.statusCode();
+            if (statusCode == 200) {
+                return response.body();
+            } else {
+                throw new IOException("Failed to get " + url + ", status code " + statusCode + "!");
             }
-
-            return JsonParser.parseString(writer.toString());
-        } catch (IOException ignored) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while getting " + url + "!");
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid URL " + url + "!", e);
         }
-
-        return JsonUtil.EMPTY;
     }
 }
@@ -1,12 +1,16 @@
 package io.github.shaksternano.mediamanipulator.util.tenor;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.gson.JsonElement;
 import io.github.shaksternano.mediamanipulator.Main;
+import io.github.shaksternano.mediamanipulator.util.CircuitBreaker;
 import io.github.shaksternano.mediamanipulator.util.JsonUtil;
 import io.github.shaksternano.mediamanipulator.util.NetworkUtil;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
 import java.util.Optional;
 
 /**
@@ -14,8 +18,30 @@ import java.util.Optional;
  */
 public class TenorUtil {
 
+    /**
+     * The maximum time to wait for the Tenor API to respond.
+     */
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * Requests that take longer than this count as failures for the {@link #CIRCUIT_BREAKER}.
+     */
+    private static final Duration SLOW_REQUEST_THRESHOLD = Duration.ofSeconds(2);
+
+    /**
+     * Resolved media URLs, keyed by the Tenor media ID and media type.
+     * Entries are evicted when they are too old or when the least recently used ones are pushed out.
+     */
+    private static final Cache<String, String> MEDIA_URL_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(Duration.ofHours(6))
+            .build();
+
+    private static final CircuitBreaker CIRCUIT_BREAKER = new CircuitBreaker(3, Duration.ofMinutes(1));
+
     /**
      * Gets the direct file URL from a Tenor link.
+     * Resolved URLs are cached, and resolution is skipped while the Tenor API is failing or slow.
      *
      * @param url       The Tenor URL.
      * @param mediaType The media type to get the URL of.
@@ -27,8 +53,21 @@ public class TenorUtil {
             URI uri = new URI(url);
             if (uri.getHost().contains("tenor.com") && uri.getPath().startsWith("/view/")) {
                 String mediaId = url.substring(url.lastIndexOf("-") + 1);
+                String cacheKey = mediaId + " " + mediaType.getKey();
+                String cachedMediaUrl = MEDIA_URL_CACHE.getIfPresent(cacheKey);
+                if (cachedMediaUrl != null) {
+                    return Optional.of(cachedMediaUrl);
+                }
+
+                if (!CIRCUIT_BREAKER.allowCall()) {
+                    Main.getLogger().warn("Skipping Tenor media URL resolution for " + url + " as the Tenor API is failing or slow!");
+                    return Optional.empty();
+                }
+
                 String requestUrl = "https://g.tenor.com/v1/gifs?key=" + apiKey + "&ids=" + mediaId;
-                JsonElement request = NetworkUtil.httpGet(requestUrl);
+                long start = System.nanoTime();
+                JsonElement request = NetworkUtil.httpGet(requestUrl, REQUEST_TIMEOUT);
+                long elapsed = System.nanoTime() - start;
 
                 Optional<String> mediaUrlOptional = JsonUtil.getNestedElement(request, "results")
                         .flatMap(resultsArrayElement -> JsonUtil.getArrayElement(resultsArrayElement, 0))
@@ -36,7 +75,14 @@ public class TenorUtil {
                         .flatMap(mediaArrayElement -> JsonUtil.getArrayElement(mediaArrayElement, 0))
                         .flatMap(mediaElement -> JsonUtil.getNestedElement(mediaElement, mediaType.getKey(), "url"))
                         .flatMap(JsonUtil::getString);
+                if (request.isJsonNull() || elapsed > SLOW_REQUEST_THRESHOLD.toNanos()) {
+                    CIRCUIT_BREAKER.recordFailure();
+                } else {
+                    CIRCUIT_BREAKER.recordSuccess();
+                }
+
                 if (mediaUrlOptional.isPresent()) {
+                    MEDIA_URL_CACHE.put(cacheKey, mediaUrlOptional.orElseThrow());
                     return mediaUrlOptional;
                 } else {
                     Main.getLogger().error("Error while getting Tenor media URL from Tenor URL " + url + "!");
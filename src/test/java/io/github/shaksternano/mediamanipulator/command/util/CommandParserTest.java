@@ -0,0 +1,72 @@
+package io.github.shaksternano.mediamanipulator.command.util;
+
+import io.github.shaksternano.mediamanipulator.command.CaptionCommand;
+import io.github.shaksternano.mediamanipulator.command.Command;
+import io.github.shaksternano.mediamanipulator.command.CropCommand;
+import io.github.shaksternano.mediamanipulator.command.HelpCommand;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+class CommandParserTest {
+
+    private static final Command CAPTION = new CaptionCommand("caption", "Captions media.", false);
+
+    @BeforeAll
+    static void registerCommands() {
+        CommandRegistry.register(List.of(
+                CAPTION,
+                new CropCommand("crop", "Crops media."),
+                new HelpCommand("help", "Lists commands.")
+        ));
+    }
+
+    @Test
+    void parsePipeline() {
+        List<String> commandParts = CommandParser.parseCommandParts("%caption hello | %crop 0.1 | CROP 0.2");
+        Optional<List<List<String>>> stages = CommandParser.parsePipelineStages(commandParts, CAPTION);
+
+        Assertions.assertEquals(
+                Optional.of(List.of(
+                        List.of("caption", "hello"),
+                        List.of("crop", "0.1"),
+                        List.of("crop", "0.2")
+                )),
+                stages
+        );
+    }
+
+    @Test
+    void separatorInCaptionText() {
+        List<String> commandParts = CommandParser.parseCommandParts("%caption this | that");
+
+        Assertions.assertTrue(CommandParser.parsePipelineStages(commandParts, CAPTION).isEmpty());
+        Assertions.assertEquals(List.of("this", "|", "that"), CommandParser.parseBaseArguments(commandParts, CAPTION));
+    }
+
+    @Test
+    void separatorInsideWord() {
+        List<String> commandParts = CommandParser.parseCommandParts("%caption a|b");
+
+        Assertions.assertTrue(CommandParser.parsePipelineStages(commandParts, CAPTION).isEmpty());
+        Assertions.assertEquals(List.of("a|b"), CommandParser.parseBaseArguments(commandParts, CAPTION));
+    }
+
+    @Test
+    void trailingSeparator() {
+        List<String> commandParts = CommandParser.parseCommandParts("%caption a |");
+
+        Assertions.assertTrue(CommandParser.parsePipelineStages(commandParts, CAPTION).isEmpty());
+    }
+
+    @Test
+    void firstCommandNotAnImageOperation() {
+        List<String> commandParts = CommandParser.parseCommandParts("%help | crop 0.1");
+        Command help = CommandRegistry.getCommand("help").orElseThrow();
+
+        Assertions.assertTrue(CommandParser.parsePipelineStages(commandParts, help).isEmpty());
+    }
+}
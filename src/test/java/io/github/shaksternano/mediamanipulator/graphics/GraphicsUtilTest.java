@@ -0,0 +1,42 @@
+package io.github.shaksternano.mediamanipulator.graphics;
+
+import io.github.shaksternano.mediamanipulator.graphics.drawable.Drawable;
+import io.github.shaksternano.mediamanipulator.graphics.drawable.TextDrawable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+class GraphicsUtilTest {
+
+    @Test
+    void fontFitWidth() {
+        Graphics2D graphics = createGraphics(100);
+        Drawable text = new TextDrawable("A caption that is much too wide");
+
+        int width = GraphicsUtil.fontFitWidth(200, text, graphics);
+        float fittedSize = graphics.getFont().getSize2D();
+        Assertions.assertTrue(width <= 200);
+        Assertions.assertEquals(width, text.getWidth(graphics));
+
+        graphics.setFont(graphics.getFont().deriveFont(fittedSize + 0.5F));
+        Assertions.assertTrue(text.getWidth(graphics) > 200);
+    }
+
+    @Test
+    void fontFitWidthAlreadyFits() {
+        Graphics2D graphics = createGraphics(10);
+        Drawable text = new TextDrawable("Short");
+
+        int width = GraphicsUtil.fontFitWidth(1000, text, graphics);
+        Assertions.assertEquals(10F, graphics.getFont().getSize2D());
+        Assertions.assertEquals(text.getWidth(graphics), width);
+    }
+
+    private static Graphics2D createGraphics(float fontSize) {
+        Graphics2D graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 1).deriveFont(fontSize));
+        return graphics;
+    }
+}
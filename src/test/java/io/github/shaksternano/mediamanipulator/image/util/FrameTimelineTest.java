@@ -0,0 +1,54 @@
+package io.github.shaksternano.mediamanipulator.image.util;
+
+import com.google.common.collect.ImmutableList;
+import io.github.shaksternano.mediamanipulator.image.imagemedia.AnimatedImage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+class FrameTimelineTest {
+
+    private final BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+    @Test
+    void frameAt() {
+        FrameTimeline timeline = FrameTimeline.of(new AnimatedImage(ImmutableList.of(
+                new AwtFrame(image, 23),
+                new AwtFrame(image, 40),
+                new AwtFrame(image, 35),
+                new AwtFrame(image, 2),
+                new AwtFrame(image, 3)
+        )));
+
+        Assertions.assertEquals(5, timeline.getSlotCount());
+        Assertions.assertEquals(4, timeline.getRunCount());
+        Assertions.assertEquals(0, timeline.frameAt(0));
+        Assertions.assertEquals(1, timeline.frameAt(1));
+        Assertions.assertEquals(1, timeline.frameAt(2));
+        Assertions.assertEquals(2, timeline.frameAt(3));
+        Assertions.assertEquals(3, timeline.frameAt(4));
+    }
+
+    @Test
+    void merge() {
+        FrameTimeline timeline1 = FrameTimeline.of(new AnimatedImage(ImmutableList.of(
+                new AwtFrame(image, 200),
+                new AwtFrame(image, 100)
+        )));
+        FrameTimeline timeline2 = FrameTimeline.of(new AnimatedImage(ImmutableList.of(
+                new AwtFrame(image, 60),
+                new AwtFrame(image, 40)
+        )));
+
+        Assertions.assertEquals(List.of(
+                new FrameTimeline.Segment(0, 0, 3),
+                new FrameTimeline.Segment(0, 1, 2),
+                new FrameTimeline.Segment(0, 0, 3),
+                new FrameTimeline.Segment(0, 1, 2),
+                new FrameTimeline.Segment(1, 0, 3),
+                new FrameTimeline.Segment(1, 1, 2)
+        ), ImmutableList.copyOf(FrameTimeline.merge(timeline1, timeline2)));
+    }
+}
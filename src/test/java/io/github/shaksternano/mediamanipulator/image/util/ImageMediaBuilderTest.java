@@ -0,0 +1,39 @@
+package io.github.shaksternano.mediamanipulator.image.util;
+
+import io.github.shaksternano.mediamanipulator.image.imagemedia.ImageMedia;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+class ImageMediaBuilderTest {
+
+    @Test
+    void deduplicateByContent() {
+        BufferedImage image1 = createImage(0xFF000000);
+        BufferedImage image2 = createImage(0xFF000000);
+        BufferedImage image3 = createImage(0xFFFFFFFF);
+
+        ImageMedia byReference = new ImageMediaBuilder()
+                .add(new AwtFrame(image1, 20), new AwtFrame(image2, 30), new AwtFrame(image3, 40))
+                .build();
+        ImageMedia byContent = new ImageMediaBuilder(true)
+                .add(new AwtFrame(image1, 20), new AwtFrame(image2, 30), new AwtFrame(image3, 40))
+                .build();
+
+        Assertions.assertEquals(3, byReference.getFrameCount());
+        Assertions.assertEquals(2, byContent.getFrameCount());
+        Assertions.assertEquals(50, byContent.getFrame(0).getDuration());
+        Assertions.assertEquals(40, byContent.getFrame(1).getDuration());
+    }
+
+    private static BufferedImage createImage(int rgb) {
+        BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                image.setRGB(x, y, rgb);
+            }
+        }
+        return image;
+    }
+}
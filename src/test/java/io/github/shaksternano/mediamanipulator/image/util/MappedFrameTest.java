@@ -0,0 +1,31 @@
+package io.github.shaksternano.mediamanipulator.image.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+class MappedFrameTest {
+
+    @Test
+    void durationAfterFlush() throws IOException {
+        try (FrameSpillFile spillFile = new FrameSpillFile()) {
+            Frame frame = spillFile.write(new AwtFrame(new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB), 50));
+            frame.flush();
+            Assertions.assertEquals(50, frame.getDuration());
+        }
+    }
+
+    @Test
+    void flushTwice() throws IOException {
+        try (FrameSpillFile spillFile = new FrameSpillFile()) {
+            Frame frame = spillFile.write(new AwtFrame(new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB), 50));
+            Frame copy = frame.copyWithDuration(100);
+            frame.flush();
+            frame.flush();
+            Assertions.assertEquals(4, copy.getImage().getWidth());
+            copy.flush();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.shaksternano.mediamanipulator.io;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.shaksternano.mediamanipulator.exception.UnsupportedFileFormatException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+
+class MediaDownloaderTest {
+
+    private static final byte[] GIF = createBody(new byte[]{'G', 'I', 'F', '8', '9', 'a'}, 1000);
+    private static final byte[] TEXT = createBody(new byte[]{'<', 'h', 't', 'm', 'l', '>'}, 1000);
+
+    private HttpServer server;
+    private File file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/image.gif", exchange -> respond(exchange, GIF));
+        server.createContext("/page.html", exchange -> respond(exchange, TEXT));
+        server.start();
+        file = File.createTempFile("download", ".tmp");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @Test
+    void download() throws Exception {
+        MediaDownloader.download(getUrl("/image.gif"), file, GIF.length, format -> format.equals("gif")).get();
+        Assertions.assertArrayEquals(GIF, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    void downloadToMemory() throws Exception {
+        DownloadedMedia media = MediaDownloader.download(getUrl("/image.gif"), file, GIF.length, GIF.length, format -> format.equals("gif")).get();
+        Assertions.assertTrue(media.isInMemory());
+        Assertions.assertEquals("gif", media.getFormat());
+        Assertions.assertEquals(0, file.length());
+        Assertions.assertArrayEquals(GIF, Files.readAllBytes(media.getFile().toPath()));
+    }
+
+    @Test
+    void downloadOverInMemoryLimit() throws Exception {
+        DownloadedMedia media = MediaDownloader.download(getUrl("/image.gif"), file, GIF.length, GIF.length - 1, null).get();
+        Assertions.assertFalse(media.isInMemory());
+        Assertions.assertArrayEquals(GIF, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    void contentLengthOverLimit() {
+        ExecutionException exception = Assertions.assertThrows(
+                ExecutionException.class,
+                () -> MediaDownloader.download(getUrl("/image.gif"), file, GIF.length - 1, null).get()
+        );
+        Assertions.assertTrue(exception.getCause() instanceof IOException);
+        Assertions.assertFalse(file.exists());
+    }
+
+    @Test
+    void unsupportedFormat() {
+        ExecutionException exception = Assertions.assertThrows(
+                ExecutionException.class,
+                () -> MediaDownloader.download(getUrl("/page.html"), file, TEXT.length, format -> true).get()
+        );
+        Assertions.assertTrue(exception.getCause() instanceof UnsupportedFileFormatException);
+        Assertions.assertFalse(file.exists());
+    }
+
+    private String getUrl(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static void respond(com.sun.net.httpserver.HttpExchange exchange, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private static byte[] createBody(byte[] header, int length) {
+        byte[] body = Arrays.copyOf(header, length);
+        Arrays.fill(body, header.length, length, (byte) 1);
+        return body;
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.shaksternano.mediamanipulator.mediamanipulator;
+
+import io.github.shaksternano.mediamanipulator.graphics.drawable.Drawable;
+import io.github.shaksternano.mediamanipulator.graphics.drawable.ImageDrawable;
+import io.github.shaksternano.mediamanipulator.image.imagemedia.ImageMedia;
+import io.github.shaksternano.mediamanipulator.image.imagemedia.StaticImage;
+import io.github.shaksternano.mediamanipulator.image.util.Frame;
+import io.github.shaksternano.mediamanipulator.image.util.ImageUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+class ImageManipulatorTest {
+
+    @Test
+    void captionWithRepeatedDrawableFrames() throws IOException {
+        BufferedImage red = createImage(20, 20, Color.RED);
+        BufferedImage blue = createImage(20, 20, Color.BLUE);
+        Drawable emoji = new ImageDrawable(List.of(red, red, red, blue, blue, blue));
+        ImageMedia image = new StaticImage(createImage(100, 100, Color.WHITE));
+
+        ImageMedia result = new ImageManipulator().caption(image, List.of(":emoji:"), Map.of(":emoji:", emoji), false);
+
+        Assertions.assertEquals(2, result.getFrameCount());
+        Assertions.assertFalse(ImageUtil.samePixels(result.getFrame(0).getImage(), result.getFrame(1).getImage()));
+        Assertions.assertEquals(3 * Frame.GIF_MINIMUM_FRAME_DURATION, result.getFrame(0).getDuration());
+        Assertions.assertEquals(3 * Frame.GIF_MINIMUM_FRAME_DURATION, result.getFrame(1).getDuration());
+    }
+
+    private static BufferedImage createImage(int width, int height, Color color) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        return image;
+    }
+}
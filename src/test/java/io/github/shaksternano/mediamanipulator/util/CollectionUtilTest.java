@@ -1,10 +1,15 @@
 package io.github.shaksternano.mediamanipulator.util;
 
+import com.google.common.collect.ImmutableList;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class CollectionUtilTest {
 
@@ -25,4 +30,49 @@ class CollectionUtilTest {
         Assertions.assertEquals(List.of(1, 2, 3, 1, 2, 3, 1), CollectionUtil.extendLoop(List.of(1, 2, 3), 7));
         Assertions.assertEquals(List.of(1), CollectionUtil.extendLoop(List.of(1), 1));
     }
+
+    @Test
+    void parallelMapOrdered() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Assertions.assertEquals(List.of(2, 4, 6, 8, 10), ImmutableList.copyOf(CollectionUtil.parallelMapOrdered(List.of(1, 2, 3, 4, 5).iterator(), i -> i * 2, 2, executor)));
+            Assertions.assertEquals(List.of(), ImmutableList.copyOf(CollectionUtil.parallelMapOrdered(List.<Integer>of().iterator(), i -> i * 2, 4, executor)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void parallelMapOrderedBoundsElementsInFlight() {
+        int parallelism = 3;
+        AtomicInteger taken = new AtomicInteger();
+        AtomicInteger returned = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Iterator<Integer> source = new Iterator<>() {
+
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < 20;
+            }
+
+            @Override
+            public Integer next() {
+                maxInFlight.accumulateAndGet(taken.incrementAndGet() - returned.get(), Math::max);
+                return next++;
+            }
+        };
+
+        // Never runs the tasks, so that every element is mapped by the calling thread.
+        Iterator<Integer> mapped = CollectionUtil.parallelMapOrdered(source, i -> i * 2, parallelism, task -> {
+        });
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertEquals(i * 2, (int) mapped.next());
+            returned.incrementAndGet();
+        }
+
+        Assertions.assertFalse(mapped.hasNext());
+        Assertions.assertEquals(parallelism, maxInFlight.get());
+    }
 }